@@ -0,0 +1,16 @@
+package com.anz.challenge.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Non-blocking variant of the order API: the same {@code /orders} contract as the Spring MVC service, served by
+ * WebFlux on Netty with R2DBC persistence, so both stacks can be benchmarked side by side.
+ */
+@SpringBootApplication
+public class ReactiveOrderApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveOrderApplication.class, args);
+	}
+}
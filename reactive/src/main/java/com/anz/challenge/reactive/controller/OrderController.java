@@ -0,0 +1,70 @@
+package com.anz.challenge.reactive.controller;
+
+import com.anz.challenge.reactive.dto.BulkOrderReport;
+import com.anz.challenge.reactive.dto.OrderSummary;
+import com.anz.challenge.reactive.model.Order;
+import com.anz.challenge.reactive.service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The {@code /orders} contract of the MVC service's {@code OrderController}, served without blocking.
+ */
+@RestController
+@RequestMapping("/orders")
+public class OrderController {
+
+	@Autowired
+	private OrderService service;
+
+	@PostMapping
+	public Mono<Order> createOrder(@Valid @RequestBody Order order) {
+		return service.createOrder(order);
+	}
+
+	@PostMapping("/bulkOrders")
+	public Mono<ResponseEntity<BulkOrderReport>> createOrders(@RequestBody List<Order> orders) {
+		return service.createOrders(orders).map(report -> {
+			if (report.rejected() == 0) {
+				return ResponseEntity.ok(report);
+			}
+			HttpStatus status = report.created() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+			return ResponseEntity.status(status).body(report);
+		});
+	}
+
+	@GetMapping("/{id}")
+	public Mono<Order> getOrder(@PathVariable Long id) {
+		return service.getOrder(id);
+	}
+
+	@PutMapping("/{id}/status")
+	public Mono<Order> updateStatus(@PathVariable Long id, @RequestParam Order.Status status) {
+		return service.updateStatus(id, status);
+	}
+
+	@GetMapping
+	public Mono<Page<Order>> searchOrders(@RequestParam(required = false) Order.Status status,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
+		return service.searchOrders(status, PageRequest.of(page, size, Sort.by("id")));
+	}
+
+	// Streamed as the rows arrive: a JSON array, or one object per line with Accept: application/x-ndjson.
+	// A slow client slows the database reads instead of buffering the result
+	@GetMapping(value = "/stream/status/{status}", produces = { MediaType.APPLICATION_JSON_VALUE,
+			MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<OrderSummary> getOrdersByStatusStream(@PathVariable("status") Order.Status status) {
+		return service.streamOrdersByStatus(status);
+	}
+}
@@ -0,0 +1,16 @@
+package com.anz.challenge.reactive.dto;
+
+import com.anz.challenge.reactive.model.Order;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk order request: the orders that were persisted and the per-index violations that were rejected.
+ */
+public record BulkOrderReport(int received, int created, int rejected, List<Order> orders,
+		List<BulkOrderViolation> violations) {
+
+	public boolean isPartial() {
+		return created > 0 && rejected > 0;
+	}
+}
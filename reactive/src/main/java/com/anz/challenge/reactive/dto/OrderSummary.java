@@ -0,0 +1,4 @@
+package com.anz.challenge.reactive.dto;
+
+public record OrderSummary(Long id, String description, String status) {
+}
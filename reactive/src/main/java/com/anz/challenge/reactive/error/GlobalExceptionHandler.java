@@ -0,0 +1,52 @@
+package com.anz.challenge.reactive.error;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.stream.Collectors;
+
+// Same status codes and ApiError body as the MVC service
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+	@ExceptionHandler(OrderNotFoundException.class)
+	public ResponseEntity<ApiError> handleOrderNotFound(OrderNotFoundException ex, ServerHttpRequest request) {
+		return error(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<ApiError> handleIllegalArgument(IllegalArgumentException ex, ServerHttpRequest request) {
+		return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+	}
+
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<ApiError> handleValidation(WebExchangeBindException ex, ServerHttpRequest request) {
+		String message = ex.getFieldErrors().stream()
+				.map(e -> e.getField() + ": " + e.getDefaultMessage())
+				.collect(Collectors.joining(", "));
+		return error(HttpStatus.BAD_REQUEST, message, request);
+	}
+
+	// Malformed JSON, unknown enum values and bad path/query parameters
+	@ExceptionHandler(ServerWebInputException.class)
+	public ResponseEntity<ApiError> handleInvalidInput(ServerWebInputException ex, ServerHttpRequest request) {
+		return error(HttpStatus.BAD_REQUEST, "Invalid input: " + ex.getReason(), request);
+	}
+
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<ApiError> handleConcurrentUpdate(OptimisticLockingFailureException ex,
+			ServerHttpRequest request) {
+		return error(HttpStatus.CONFLICT, ex.getMessage(), request);
+	}
+
+	private static ResponseEntity<ApiError> error(HttpStatus status, String message, ServerHttpRequest request) {
+		return ResponseEntity.status(status)
+				.body(new ApiError(status.value(), status.getReasonPhrase(), message, request.getPath().value()));
+	}
+}
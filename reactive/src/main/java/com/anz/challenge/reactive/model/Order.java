@@ -0,0 +1,70 @@
+package com.anz.challenge.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Same JSON shape as the MVC service's Order
+@Table("orders")
+public class Order {
+
+    @Id
+    private Long id;
+
+    @NotBlank(message = "Description must not be empty")
+    private String description;
+
+    @NotNull(message = "Status cannot be null")
+    private Status status = Status.CREATED;
+
+    @Column("created_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    // Optimistic locking: updates check and bump the version
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    public Order() {}
+
+    public Order(Long id, String description, Status status) {
+        this.id = id;
+        this.description = description;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Status getStatus() { return status; }
+
+    @JsonSetter(nulls = Nulls.SKIP)
+    public void setStatus(Status status) {
+        this.status = (status == null) ? Status.CREATED : status;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public enum Status {
+        CREATED,
+        COMPLETED,
+        CANCELLED
+    }
+}
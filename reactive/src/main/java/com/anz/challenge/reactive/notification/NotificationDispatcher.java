@@ -0,0 +1,114 @@
+package com.anz.challenge.reactive.notification;
+
+import com.anz.challenge.reactive.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking notification delivery. Orders are queued on a bounded sink and a single subscriber delivers them with
+ * at most {@code notification.max-concurrent} requests in flight; no thread waits on a channel. When the queue is
+ * full the notification is dropped and logged, as with the MVC service's notification lanes.
+ */
+@Component
+public class NotificationDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+	@Autowired
+	private WebClient.Builder webClientBuilder;
+
+	@Value("${notification.email.enabled:true}")
+	private boolean emailEnabled;
+
+	@Value("${notification.sms.enabled:false}")
+	private boolean smsEnabled;
+
+	// Blank = simulated channel (logs only); otherwise notifications are POSTed as JSON
+	@Value("${notification.email.url:}")
+	private String emailUrl;
+
+	@Value("${notification.sms.url:}")
+	private String smsUrl;
+
+	@Value("${notification.timeout-ms:2000}")
+	private long timeoutMs;
+
+	@Value("${notification.max-concurrent:64}")
+	private int maxConcurrent;
+
+	@Value("${notification.queue-capacity:10000}")
+	private int queueCapacity;
+
+	private final List<Channel> channels = new ArrayList<>();
+	private Sinks.Many<Order> queue;
+	private Disposable worker;
+
+	private record Channel(String name, String url) {
+	}
+
+	@PostConstruct
+	public void init() {
+		if (emailEnabled) {
+			channels.add(new Channel("EMAIL", emailUrl));
+		}
+		if (smsEnabled) {
+			channels.add(new Channel("SMS", smsUrl));
+		}
+		queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<Order>get(queueCapacity).get());
+		WebClient client = webClientBuilder.build();
+		worker = queue.asFlux()
+				.flatMap(order -> Flux.fromIterable(channels).flatMap(channel -> deliver(client, channel, order)),
+						maxConcurrent)
+				.subscribe();
+		log.info("Notification channels {} (queue {}, {} concurrent)", channels.stream().map(Channel::name).toList(),
+				queueCapacity, maxConcurrent);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.dispose();
+	}
+
+	// Never blocks; the sink requires serialized emission
+	public synchronized void submit(Order order) {
+		Sinks.EmitResult result = queue.tryEmitNext(order);
+		if (result.isFailure()) {
+			log.error("Notification queue is full, dropping notification for order {} with status {}", order.getId(),
+					order.getStatus());
+		}
+	}
+
+	private Mono<Void> deliver(WebClient client, Channel channel, Order order) {
+		if (channel.url().isBlank()) {
+			return Mono.fromRunnable(() -> log.info("[{}] Order {} is now {}", channel.name(), order.getId(),
+					order.getStatus()));
+		}
+		return client.post().uri(channel.url())
+				.bodyValue(Map.of("orderId", order.getId(), "status", order.getStatus().name(),
+						"description", order.getDescription(), "channel", channel.name()))
+				.retrieve()
+				.toBodilessEntity()
+				.timeout(Duration.ofMillis(timeoutMs))
+				.then()
+				.onErrorResume(e -> {
+					log.error("[{}] Notification for order {} failed: {}", channel.name(), order.getId(), e.getMessage());
+					return Mono.empty();
+				});
+	}
+}
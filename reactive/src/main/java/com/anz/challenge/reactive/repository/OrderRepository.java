@@ -0,0 +1,19 @@
+package com.anz.challenge.reactive.repository;
+
+import com.anz.challenge.reactive.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface OrderRepository extends ReactiveCrudRepository<Order, Long> {
+
+	Flux<Order> findAllBy(Pageable pageable);
+
+	Flux<Order> findByStatus(Order.Status status, Pageable pageable);
+
+	Mono<Long> countByStatus(Order.Status status);
+
+	// Rows are pulled from the cursor as the subscriber requests them
+	Flux<Order> findByStatusOrderById(Order.Status status);
+}
@@ -0,0 +1,114 @@
+package com.anz.challenge.reactive.service;
+
+import com.anz.challenge.reactive.dto.BulkOrderReport;
+import com.anz.challenge.reactive.dto.BulkOrderViolation;
+import com.anz.challenge.reactive.dto.OrderSummary;
+import com.anz.challenge.reactive.error.OrderNotFoundException;
+import com.anz.challenge.reactive.model.Order;
+import com.anz.challenge.reactive.notification.NotificationDispatcher;
+import com.anz.challenge.reactive.repository.OrderRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class OrderService {
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private TransactionalOperator transactionalOperator;
+
+	public Mono<Order> createOrder(Order order) {
+		prepare(order);
+		return repository.save(order).doOnNext(notificationDispatcher::submit);
+	}
+
+	// Invalid orders are reported by index; the valid ones are inserted in one transaction
+	public Mono<BulkOrderReport> createOrders(List<Order> orders) {
+		List<Order> valid = new ArrayList<>(orders.size());
+		List<BulkOrderViolation> violations = new ArrayList<>();
+		for (int i = 0; i < orders.size(); i++) {
+			Order order = orders.get(i);
+			if (order == null) {
+				violations.add(new BulkOrderViolation(i, null, "Order must not be null"));
+				continue;
+			}
+			List<ConstraintViolation<Order>> failures = validator.validate(order).stream()
+					.sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+					.toList();
+			if (failures.isEmpty()) {
+				valid.add(prepare(order));
+			}
+			for (ConstraintViolation<Order> failure : failures) {
+				violations.add(new BulkOrderViolation(i, failure.getPropertyPath().toString(), failure.getMessage()));
+			}
+		}
+		int rejected = orders.size() - valid.size();
+		Mono<List<Order>> created = valid.isEmpty() ? Mono.just(List.of())
+				: repository.saveAll(valid).collectList().as(transactionalOperator::transactional);
+		return created.doOnNext(saved -> saved.forEach(notificationDispatcher::submit))
+				.map(saved -> new BulkOrderReport(orders.size(), saved.size(), rejected, saved, violations));
+	}
+
+	public Mono<Order> getOrder(Long id) {
+		return repository.findById(id).switchIfEmpty(Mono.error(() -> new OrderNotFoundException(id)));
+	}
+
+	public Mono<Order> updateStatus(Long id, Order.Status status) {
+		return getOrder(id)
+				.flatMap(order -> {
+					if (order.getStatus() == Order.Status.COMPLETED || order.getStatus() == Order.Status.CANCELLED) {
+						return Mono.error(new IllegalArgumentException("Cannot change status from " + order.getStatus()));
+					}
+					order.setStatus(status);
+					return repository.save(order);
+				})
+				.doOnNext(notificationDispatcher::submit);
+	}
+
+	// Content and count run concurrently
+	public Mono<Page<Order>> searchOrders(Order.Status status, Pageable pageable) {
+		Flux<Order> content = status != null ? repository.findByStatus(status, pageable)
+				: repository.findAllBy(pageable);
+		Mono<Long> total = status != null ? repository.countByStatus(status) : repository.count();
+		return Mono.zip(content.collectList(), total)
+				.map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+	}
+
+	public Flux<OrderSummary> streamOrdersByStatus(Order.Status status) {
+		return repository.findByStatusOrderById(status)
+				.map(order -> new OrderSummary(order.getId(), order.getDescription(), order.getStatus().name()));
+	}
+
+	private static Order prepare(Order order) {
+		if (order.getStatus() == null) {
+			order.setStatus(Order.Status.CREATED);
+		}
+		order.setId(null);
+		order.setVersion(null);
+		if (order.getCreatedAt() == null) {
+			order.setCreatedAt(LocalDateTime.now());
+		}
+		return order;
+	}
+}
@@ -0,0 +1,10 @@
+create table if not exists orders (
+    id bigint generated by default as identity primary key,
+    description varchar(255) not null,
+    status varchar(20) not null,
+    created_at timestamp not null,
+    version bigint not null
+);
+
+create index if not exists idx_orders_status on orders (status, id);
+create index if not exists idx_orders_status_created_at on orders (status, created_at);
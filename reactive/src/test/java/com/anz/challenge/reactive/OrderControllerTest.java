@@ -0,0 +1,85 @@
+package com.anz.challenge.reactive;
+
+import com.anz.challenge.reactive.dto.OrderSummary;
+import com.anz.challenge.reactive.model.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class OrderControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void testCreateGetAndUpdateOrder() {
+        Order created = client.post().uri("/orders")
+                .bodyValue(new Order(null, "Reactive order", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Order.class).returnResult().getResponseBody();
+        assertNotNull(created.getId());
+        assertEquals(Order.Status.CREATED, created.getStatus());
+
+        client.get().uri("/orders/{id}", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.description").isEqualTo("Reactive order");
+
+        client.put().uri("/orders/{id}/status?status=COMPLETED", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("COMPLETED");
+        client.put().uri("/orders/{id}/status?status=CANCELLED", created.getId()).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Cannot change status from COMPLETED");
+
+        client.get().uri("/orders/{id}", Long.MAX_VALUE).exchange().expectStatus().isNotFound();
+        client.post().uri("/orders").bodyValue(new Order(null, "", null)).exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testBulkOrdersReportPartialSuccess() {
+        client.post().uri("/orders/bulkOrders")
+                .bodyValue(Arrays.asList(new Order(null, "Bulk 1", Order.Status.CREATED), new Order(null, "", null)))
+                .exchange()
+                .expectStatus().isEqualTo(207)
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(1)
+                .jsonPath("$.violations[0].index").isEqualTo(1)
+                .jsonPath("$.violations[0].field").isEqualTo("description");
+    }
+
+    @Test
+    void testStatusStreamIsNewlineDelimited() {
+        client.post().uri("/orders/bulkOrders")
+                .bodyValue(List.of(new Order(null, "Cancelled 1", Order.Status.CANCELLED),
+                        new Order(null, "Cancelled 2", Order.Status.CANCELLED)))
+                .exchange()
+                .expectStatus().isOk();
+
+        Flux<OrderSummary> stream = client.get().uri("/orders/stream/status/CANCELLED")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrderSummary.class).getResponseBody();
+        StepVerifier.create(stream.map(OrderSummary::description).filter(d -> d.startsWith("Cancelled ")))
+                .expectNext("Cancelled 1", "Cancelled 2")
+                .verifyComplete();
+
+        client.get().uri("/orders?status=CANCELLED&size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.content.length()").isEqualTo(1);
+    }
+}
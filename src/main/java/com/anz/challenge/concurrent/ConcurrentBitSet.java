@@ -0,0 +1,74 @@
+package com.anz.challenge.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A growable, thread-safe set of non-negative longs, one bit per value. Bits live in fixed pages of
+ * {@value #PAGE_BITS} values that are allocated on first use, so a dense range (such as IDENTITY ids) costs about
+ * one bit per value and untouched ranges cost nothing. Reads are lock-free; setting a bit is a CAS, and only
+ * allocating a page takes a lock.
+ */
+public class ConcurrentBitSet {
+
+	public static final int PAGE_BITS = 1 << 16;
+	private static final int PAGE_SHIFT = 16;
+	private static final int WORDS_PER_PAGE = PAGE_BITS / Long.SIZE;
+
+	private volatile AtomicLongArray[] pages = new AtomicLongArray[16];
+	private volatile int allocatedPages;
+
+	public boolean get(long value) {
+		if (value < 0) {
+			return false;
+		}
+		AtomicLongArray[] current = pages;
+		long page = value >>> PAGE_SHIFT;
+		if (page >= current.length || current[(int) page] == null) {
+			return false;
+		}
+		int bit = (int) (value & (PAGE_BITS - 1));
+		return (current[(int) page].get(bit >>> 6) & (1L << bit)) != 0;
+	}
+
+	// Returns true if the bit was newly set
+	public boolean set(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Negative value: " + value);
+		}
+		AtomicLongArray page = page(value >>> PAGE_SHIFT);
+		int bit = (int) (value & (PAGE_BITS - 1));
+		long mask = 1L << bit;
+		long previous = page.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+		return (previous & mask) == 0;
+	}
+
+	public long memoryBytes() {
+		AtomicLongArray[] current = pages;
+		return (long) current.length * Integer.BYTES + (long) allocatedPages * WORDS_PER_PAGE * Long.BYTES;
+	}
+
+	private AtomicLongArray page(long index) {
+		if (index > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Value out of range: " + (index << PAGE_SHIFT));
+		}
+		AtomicLongArray[] current = pages;
+		if (index < current.length && current[(int) index] != null) {
+			return current[(int) index];
+		}
+		synchronized (this) {
+			current = pages;
+			if (index >= current.length) {
+				AtomicLongArray[] grown = new AtomicLongArray[(int) Math.max(index + 1, current.length * 2L)];
+				System.arraycopy(current, 0, grown, 0, current.length);
+				current = grown;
+			}
+			if (current[(int) index] == null) {
+				current[(int) index] = new AtomicLongArray(WORDS_PER_PAGE);
+				allocatedPages++;
+			}
+			// Publishes the new page (and array) to lock-free readers
+			pages = current;
+			return current[(int) index];
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.anz.challenge.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution.
+ *
+ * The first caller for a key (the leader) runs the loader; callers arriving while it runs (followers) wait for
+ * and share its result or exception. With a positive TTL, the result is also served to later callers until it
+ * expires or is invalidated.
+ */
+public class SingleFlight<K, V> {
+
+	private final long ttlNanos;
+	private final int maxCachedResults;
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<K, CachedResult<V>> results = new ConcurrentHashMap<>();
+
+	// Bumped by every invalidation; a leader that started before it must not cache its (possibly stale) result
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder executions = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder cacheHits = new LongAdder();
+
+	public SingleFlight(long ttlMillis, int maxCachedResults) {
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.maxCachedResults = maxCachedResults;
+	}
+
+	public V execute(K key, Supplier<V> loader) {
+		if (ttlNanos > 0) {
+			CachedResult<V> cached = results.get(key);
+			if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+				cacheHits.increment();
+				return cached.value();
+			}
+		}
+
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> leader = inFlight.putIfAbsent(key, call);
+		if (leader != null) {
+			coalesced.increment();
+			return await(leader);
+		}
+
+		executions.increment();
+		long startGeneration = generation.get();
+		try {
+			V value = loader.get();
+			cache(key, value, startGeneration);
+			call.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	// A load already running may have read the old state, so later callers start a fresh one instead of joining it
+	public void invalidate(K key) {
+		generation.incrementAndGet();
+		results.remove(key);
+		inFlight.remove(key);
+	}
+
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		results.clear();
+		inFlight.clear();
+	}
+
+	public long executions() {
+		return executions.sum();
+	}
+
+	public long coalesced() {
+		return coalesced.sum();
+	}
+
+	public long cacheHits() {
+		return cacheHits.sum();
+	}
+
+	private void cache(K key, V value, long startGeneration) {
+		if (ttlNanos <= 0 || generation.get() != startGeneration) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (results.size() >= maxCachedResults) {
+			results.values().removeIf(r -> r.expiresAt() - now <= 0);
+			if (results.size() >= maxCachedResults) {
+				return;
+			}
+		}
+		CachedResult<V> entry = new CachedResult<>(value, now + ttlNanos);
+		results.put(key, entry);
+		// An invalidation may have raced with the put
+		if (generation.get() != startGeneration) {
+			results.remove(key, entry);
+		}
+	}
+
+	private static <V> V await(CompletableFuture<V> leader) {
+		try {
+			return leader.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+
+	private record CachedResult<V>(V value, long expiresAt) {
+	}
+}
@@ -0,0 +1,139 @@
+package com.anz.challenge.concurrent;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timer wheel for very many long-lived timers, each identified by a {@code long} id. Scheduling and
+ * expiry are O(1) per timer whatever the number pending, and a timer costs two longs in a slot array (no object per
+ * timer), so millions of them fit in a few tens of megabytes.
+ *
+ * Time advances in ticks of {@code tickMillis}. Level 0 has one slot per tick; each higher level has one slot per 64
+ * slots of the level below, so five levels cover 64^5 ticks (34 years at one-second ticks). A timer is placed on the
+ * lowest level whose span reaches its deadline and moves down a level each time the wheel reaches its slot, until it
+ * fires on level 0. Timers are never fired early; they fire at the first {@link #advance} at or after their deadline.
+ * Individual timers cannot be cancelled: callers ignore ids that no longer need expiring.
+ */
+public class TimerWheel {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+	private static final int LEVELS = 5;
+
+	private final long tickMillis;
+	private final Bucket[][] levels = new Bucket[LEVELS][1 << SLOT_BITS];
+	// Deadlines beyond the top level; re-placed each time the top level wraps around
+	private final Bucket overflow = new Bucket();
+	// Deadlines already reached when scheduled; fired by the next advance
+	private final Bucket due = new Bucket();
+	private long currentTick;
+	private long size;
+
+	public TimerWheel(long tickMillis, long nowMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("tickMillis must be positive");
+		}
+		this.tickMillis = tickMillis;
+		this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+		for (Bucket[] level : levels) {
+			for (int slot = 0; slot < level.length; slot++) {
+				level[slot] = new Bucket();
+			}
+		}
+	}
+
+	public synchronized void schedule(long id, long deadlineMillis) {
+		// Rounded up, so a timer never fires before its deadline
+		place(id, -Math.floorDiv(-deadlineMillis, tickMillis));
+		size++;
+	}
+
+	/**
+	 * Moves the wheel forward to {@code nowMillis} and returns the ids of every timer whose deadline has been
+	 * reached, including timers scheduled in the past since the last call.
+	 */
+	public synchronized long[] advance(long nowMillis) {
+		long targetTick = Math.floorDiv(nowMillis, tickMillis);
+		Bucket fired = new Bucket();
+		while (currentTick < targetTick) {
+			currentTick++;
+			if ((currentTick & ((1L << (LEVELS * SLOT_BITS)) - 1)) == 0) {
+				cascade(overflow);
+			}
+			// Higher levels first: they may refill a lower-level slot that is due at this same tick
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+					cascade(levels[level][slot(currentTick, level)]);
+				}
+			}
+			levels[0][slot(currentTick, 0)].drainTo(fired);
+		}
+		due.drainTo(fired);
+		size -= fired.count;
+		long[] ids = new long[fired.count];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = fired.entries[2 * i];
+		}
+		return ids;
+	}
+
+	public synchronized long size() {
+		return size;
+	}
+
+	private void place(long id, long tick) {
+		if (tick <= currentTick) {
+			due.add(id, tick);
+			return;
+		}
+		// The highest 6-bit digit in which the deadline differs from now picks the level
+		int level = (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+		if (level >= LEVELS) {
+			overflow.add(id, tick);
+		} else {
+			levels[level][slot(tick, level)].add(id, tick);
+		}
+	}
+
+	private void cascade(Bucket bucket) {
+		long[] entries = bucket.entries;
+		int count = bucket.count;
+		bucket.clear();
+		for (int i = 0; i < count; i++) {
+			place(entries[2 * i], entries[2 * i + 1]);
+		}
+	}
+
+	private static int slot(long tick, int level) {
+		return (int) (tick >>> (level * SLOT_BITS)) & SLOT_MASK;
+	}
+
+	// (id, deadline tick) pairs; emptied slots drop their array so they hold no memory
+	private static final class Bucket {
+
+		private static final long[] EMPTY = new long[0];
+
+		private long[] entries = EMPTY;
+		private int count;
+
+		void add(long id, long tick) {
+			if (2 * count == entries.length) {
+				entries = Arrays.copyOf(entries, Math.max(8, 2 * entries.length));
+			}
+			entries[2 * count] = id;
+			entries[2 * count + 1] = tick;
+			count++;
+		}
+
+		void drainTo(Bucket target) {
+			for (int i = 0; i < count; i++) {
+				target.add(entries[2 * i], entries[2 * i + 1]);
+			}
+			clear();
+		}
+
+		void clear() {
+			entries = EMPTY;
+			count = 0;
+		}
+	}
+}
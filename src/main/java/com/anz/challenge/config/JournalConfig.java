@@ -0,0 +1,41 @@
+package com.anz.challenge.config;
+
+import com.anz.challenge.journal.OrderEventJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class JournalConfig {
+
+	@Value("${order.journal.enabled:true}")
+	private boolean enabled;
+
+	@Value("${order.journal.directory:journal}")
+	private String directory;
+
+	// 262144 records * 24 bytes = 6 MB per segment
+	@Value("${order.journal.segment-records:262144}")
+	private int segmentRecords;
+
+	@Value("${order.journal.retention-segments:16}")
+	private int retentionSegments;
+
+	@Value("${order.journal.flush-batch-size:256}")
+	private int flushBatchSize;
+
+	@Value("${order.journal.flush-interval-ms:200}")
+	private long flushIntervalMs;
+
+	@Bean(destroyMethod = "close")
+	public OrderEventJournal orderEventJournal() throws IOException {
+		if (!enabled) {
+			return OrderEventJournal.disabled();
+		}
+		return OrderEventJournal.open(Path.of(directory), segmentRecords, retentionSegments, flushBatchSize,
+				flushIntervalMs);
+	}
+}
@@ -0,0 +1,68 @@
+package com.anz.challenge.config;
+
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.dto.BulkOrderViolation;
+import com.anz.challenge.dto.OrderSummary;
+import com.anz.challenge.error.ApiError;
+import com.anz.challenge.journal.OrderEvent;
+import com.anz.challenge.model.Order;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the GraalVM native image ({@code mvn -Pnative package}).
+ *
+ * Spring AOT already covers beans, controller signatures and the JPA repository. What it cannot see is registered
+ * here: payloads Jackson writes outside handler return types (error bodies, bulk reports, CBOR/Smile), the
+ * Hibernate entity, jjwt's implementation classes that {@code Jwts} loads by name, and springdoc's static assets.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.OrderServiceRuntimeHints.class)
+public class NativeHintsConfig {
+
+	// Instantiated reflectively by io.jsonwebtoken.Jwts and the service loader in jjwt-api
+	static final String[] JJWT_TYPES = {
+			"io.jsonwebtoken.impl.DefaultJwtBuilder",
+			"io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+			"io.jsonwebtoken.impl.DefaultJwtParser",
+			"io.jsonwebtoken.impl.DefaultClaims",
+			"io.jsonwebtoken.impl.DefaultHeader",
+			"io.jsonwebtoken.impl.DefaultJwsHeader",
+			"io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+			"io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+			"io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+			"io.jsonwebtoken.jackson.io.JacksonSerializer",
+			"io.jsonwebtoken.jackson.io.JacksonDeserializer"
+	};
+
+	static class OrderServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+			bindings.registerReflectionHints(hints.reflection(), Order.class, OrderSummary.class,
+					BulkOrderReport.class, BulkOrderViolation.class, ApiError.class, OrderEvent.class);
+
+			// Hibernate reads and writes the entity's fields directly and instantiates it through the no-arg constructor
+			hints.reflection().registerType(Order.class, MemberCategory.DECLARED_FIELDS,
+					MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+			hints.reflection().registerType(Order.Status.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+			for (String type : JJWT_TYPES) {
+				hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+						MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+			}
+			hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+			hints.resources().registerPattern("notification.properties");
+			hints.resources().registerPattern("static/*");
+			hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+		}
+	}
+}
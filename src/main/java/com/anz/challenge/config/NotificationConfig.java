@@ -1,43 +1,161 @@
 package com.anz.challenge.config;
 
+import com.anz.challenge.notification.HttpNotificationChannel;
+import com.anz.challenge.notification.NotificationChannel;
+import com.anz.challenge.notification.SimulatedNotificationChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import jakarta.annotation.PostConstruct;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
 @Configuration
 @PropertySource("classpath:notification.properties")
 public class NotificationConfig {
-	
+
 	private static final Logger log = LoggerFactory.getLogger(NotificationConfig.class);
 
-	@Value("${notification.email.enabled}")
-    private boolean emailEnabled;
-	
-	@Value("${notification.sms.enabled}")
-    private boolean smsEnabled;
+	// When blank the channel is simulated locally; otherwise notifications are POSTed here
+	@Value("${notification.email.url:}")
+    private String emailUrl;
+
+	@Value("${notification.sms.url:}")
+    private String smsUrl;
+
+	@Value("${notification.email.timeout-ms:2000}")
+    private long emailTimeoutMs;
+
+	@Value("${notification.sms.timeout-ms:2000}")
+    private long smsTimeoutMs;
+
+	// Shared client: HTTP/2 multiplexes concurrent sends over one connection per endpoint
+	@Value("${notification.http.version:HTTP_2}")
+    private HttpClient.Version httpVersion;
 
-    public boolean isEmailEnabled() {
-        return emailEnabled;
+	@Value("${notification.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
+    @Autowired
+    private Environment environment;
+
+    // Read lock-free on every send; replaced as a whole by reloads
+    private final AtomicReference<NotificationSettings> settings =
+            new AtomicReference<>(NotificationSettings.DEFAULTS);
+
+    // Only changed under the lock, together with settings
+    private final Map<Source, Map<String, String>> layers = new EnumMap<>(Source.class);
+
+    @Bean
+    public HttpClient notificationHttpClient() {
+        return HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
     }
 
-    public void setEmailEnabled(boolean emailEnabled) {
-        this.emailEnabled = emailEnabled;
+    @Bean
+    public NotificationChannel emailChannel(HttpClient notificationHttpClient) {
+        return channel("Email", () -> settings().emailEnabled(), emailUrl, () -> settings().emailMaxConcurrent(),
+                emailTimeoutMs, notificationHttpClient);
     }
 
-    public boolean isSmsEnabled() {
-        return smsEnabled;
+    @Bean
+    public NotificationChannel smsChannel(HttpClient notificationHttpClient) {
+        return channel("SMS", () -> settings().smsEnabled(), smsUrl, () -> settings().smsMaxConcurrent(),
+                smsTimeoutMs, notificationHttpClient);
     }
 
-    public void setSmsEnabled(boolean smsEnabled) {
-        this.smsEnabled = smsEnabled;
+    private NotificationChannel channel(String name, BooleanSupplier enabled, String url, IntSupplier maxConcurrent,
+            long timeoutMs, HttpClient client) {
+        if (url.isBlank()) {
+            return new SimulatedNotificationChannel(name, enabled, () -> settings().simulatedFailureRate());
+        }
+        return new HttpNotificationChannel(name, enabled, URI.create(url), client, Duration.ofMillis(timeoutMs),
+                maxConcurrent);
     }
-    
+
+    /**
+     * The current snapshot. A plain volatile read, so it is cheap enough to call per send; callers that need
+     * several values read the snapshot once so they stay consistent.
+     */
+    public NotificationSettings settings() {
+        return settings.get();
+    }
+
+    public synchronized Map<String, String> overrides(Source source) {
+        return layers.getOrDefault(source, Map.of());
+    }
+
+    /**
+     * Replaces the properties contributed by one source and publishes the resulting snapshot. Sources are layered
+     * in {@link Source} order over the defaults. Invalid properties throw {@link IllegalArgumentException} and
+     * leave the current snapshot in place.
+     */
+    public synchronized NotificationSettings apply(Source source, Map<String, String> properties) {
+        Map<Source, Map<String, String>> next = new EnumMap<>(layers);
+        next.put(source, Map.copyOf(properties));
+        NotificationSettings resolved = NotificationSettings.DEFAULTS;
+        for (Map<String, String> layer : next.values()) {
+            resolved = resolved.with(layer);
+        }
+        layers.put(source, Map.copyOf(properties));
+        NotificationSettings previous = settings.getAndSet(resolved);
+        if (source != Source.ENVIRONMENT) {
+            log.info("Notification settings reloaded from {}: {}", source.name().toLowerCase(),
+                    changes(previous, resolved));
+        }
+        return resolved;
+    }
+
     @PostConstruct
     public void init() {
-        log.info("Email enabled? " + emailEnabled);
-        log.info("SMS enabled? " + smsEnabled);
+        Map<String, String> configured = new HashMap<>();
+        if (environment != null) {
+            for (String key : NotificationSettings.KEYS) {
+                String value = environment.getProperty(key);
+                if (value != null) {
+                    configured.put(key, value);
+                }
+            }
+        }
+        NotificationSettings current = apply(Source.ENVIRONMENT, configured);
+        log.info("Email enabled? " + current.emailEnabled() + (emailUrl.isBlank() ? " (simulated)" : " -> " + emailUrl));
+        log.info("SMS enabled? " + current.smsEnabled() + (smsUrl.isBlank() ? " (simulated)" : " -> " + smsUrl));
+    }
+
+    private static Map<String, String> changes(NotificationSettings before, NotificationSettings after) {
+        Map<String, String> changes = new TreeMap<>();
+        Map<String, Object> old = before.asProperties();
+        after.asProperties().forEach((key, value) -> {
+            if (!value.equals(old.get(key))) {
+                changes.put(key, old.get(key) + " -> " + value);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Where reloadable properties come from, lowest precedence first: the application's property sources at
+     * startup, then the reload file, then the actuator endpoint.
+     */
+    public enum Source {
+        ENVIRONMENT,
+        FILE,
+        ENDPOINT
     }
 }
@@ -0,0 +1,117 @@
+package com.anz.challenge.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads notification settings from {@code notification.reload.file}, a properties file with any of the
+ * {@link NotificationSettings} keys. The file's modification time is polled rather than watched with a
+ * {@code WatchService}, which misses changes on network mounts and to symlinked (e.g. Kubernetes ConfigMap) files.
+ *
+ * A file that fails to parse or validate is logged and ignored, keeping the current settings; deleting the file
+ * drops its overrides.
+ */
+@Component
+public class NotificationConfigWatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationConfigWatcher.class);
+
+	@Autowired
+	private NotificationConfig config;
+
+	// Blank disables file reloads
+	@Value("${notification.reload.file:}")
+	private String file;
+
+	@Value("${notification.reload.interval-ms:2000}")
+	private long intervalMs;
+
+	private ScheduledExecutorService poller;
+	// Only touched by the poller thread
+	private FileTime loaded;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (file.isBlank()) {
+			return;
+		}
+		check();
+		poller = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "notification-config-watcher");
+			t.setDaemon(true);
+			return t;
+		});
+		poller.scheduleWithFixedDelay(this::checkSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		log.info("Watching {} for notification settings every {} ms", file, intervalMs);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (poller != null) {
+			poller.shutdownNow();
+		}
+	}
+
+	/**
+	 * Applies the file if it changed since the last check. Returns whether new settings were published.
+	 */
+	public boolean check() {
+		Path path = Path.of(file);
+		FileTime modified;
+		try {
+			modified = Files.exists(path) ? Files.getLastModifiedTime(path) : null;
+		} catch (IOException e) {
+			log.warn("Cannot read {}: {}", path, e.getMessage());
+			return false;
+		}
+		if (modified == null ? loaded == null : modified.equals(loaded)) {
+			return false;
+		}
+		Map<String, String> properties = new HashMap<>();
+		if (modified != null) {
+			Properties read = new Properties();
+			try (Reader reader = Files.newBufferedReader(path)) {
+				read.load(reader);
+			} catch (IOException e) {
+				log.warn("Cannot read {}: {}", path, e.getMessage());
+				return false;
+			}
+			read.stringPropertyNames().forEach(name -> properties.put(name, read.getProperty(name)));
+		}
+		// Remembered even when invalid, so a bad file is reported once rather than on every poll
+		loaded = modified;
+		try {
+			config.apply(NotificationConfig.Source.FILE, properties);
+			return true;
+		} catch (IllegalArgumentException e) {
+			log.error("Ignoring {}, keeping the current notification settings: {}", path, e.getMessage());
+			return false;
+		}
+	}
+
+	private void checkSafely() {
+		try {
+			check();
+		} catch (RuntimeException e) {
+			log.error("Notification settings reload failed", e);
+		}
+	}
+}
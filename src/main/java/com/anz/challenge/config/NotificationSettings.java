@@ -0,0 +1,120 @@
+package com.anz.challenge.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the notification settings that may change at runtime: channel switches, per-channel
+ * concurrency, retry/backoff and the dispatcher's slots and lane weights. {@link NotificationConfig} publishes a new
+ * snapshot on every reload, so a reader sees either the old or the new values, never a mix.
+ *
+ * Settings are addressed by their property names, e.g. {@code notification.retry.max-attempts}.
+ */
+public record NotificationSettings(boolean emailEnabled, boolean smsEnabled, int emailMaxConcurrent,
+		int smsMaxConcurrent, double simulatedFailureRate, int retryMaxAttempts, long retryBackoffMs,
+		double retryMultiplier, long retryMaxBackoffMs, int dispatchMaxInFlight, int cancellationWeight,
+		int interactiveWeight, int bulkWeight) {
+
+	public static final NotificationSettings DEFAULTS = new NotificationSettings(true, false, 64, 16, 0.2, 3, 1000,
+			2, 8000, 32, 8, 4, 1);
+
+	public static final Set<String> KEYS = Collections.unmodifiableSet(DEFAULTS.asProperties().keySet());
+
+	public NotificationSettings {
+		atLeast("notification.email.max-concurrent", emailMaxConcurrent, 1);
+		atLeast("notification.sms.max-concurrent", smsMaxConcurrent, 1);
+		if (!(simulatedFailureRate >= 0 && simulatedFailureRate <= 1)) {
+			throw new IllegalArgumentException("notification.simulated-failure-rate must be between 0 and 1");
+		}
+		atLeast("notification.retry.max-attempts", retryMaxAttempts, 1);
+		atLeast("notification.retry.backoff-ms", retryBackoffMs, 0);
+		if (!(retryMultiplier >= 1)) {
+			throw new IllegalArgumentException("notification.retry.multiplier must be at least 1");
+		}
+		atLeast("notification.retry.max-backoff-ms", retryMaxBackoffMs, retryBackoffMs);
+		atLeast("notification.dispatch.max-in-flight", dispatchMaxInFlight, 1);
+		atLeast("notification.lanes.cancellation.weight", cancellationWeight, 1);
+		atLeast("notification.lanes.interactive.weight", interactiveWeight, 1);
+		atLeast("notification.lanes.bulk.weight", bulkWeight, 1);
+	}
+
+	/**
+	 * A copy with the given properties applied on top. Unknown names and malformed or out-of-range values throw
+	 * {@link IllegalArgumentException}, so a typo never silently leaves the old value in place.
+	 */
+	public NotificationSettings with(Map<String, String> properties) {
+		boolean emailEnabled = this.emailEnabled;
+		boolean smsEnabled = this.smsEnabled;
+		int emailMaxConcurrent = this.emailMaxConcurrent;
+		int smsMaxConcurrent = this.smsMaxConcurrent;
+		double simulatedFailureRate = this.simulatedFailureRate;
+		int retryMaxAttempts = this.retryMaxAttempts;
+		long retryBackoffMs = this.retryBackoffMs;
+		double retryMultiplier = this.retryMultiplier;
+		long retryMaxBackoffMs = this.retryMaxBackoffMs;
+		int dispatchMaxInFlight = this.dispatchMaxInFlight;
+		int cancellationWeight = this.cancellationWeight;
+		int interactiveWeight = this.interactiveWeight;
+		int bulkWeight = this.bulkWeight;
+		for (Map.Entry<String, String> property : properties.entrySet()) {
+			String name = property.getKey();
+			String value = property.getValue().trim();
+			try {
+				switch (name) {
+					case "notification.email.enabled" -> emailEnabled = parseBoolean(value);
+					case "notification.sms.enabled" -> smsEnabled = parseBoolean(value);
+					case "notification.email.max-concurrent" -> emailMaxConcurrent = Integer.parseInt(value);
+					case "notification.sms.max-concurrent" -> smsMaxConcurrent = Integer.parseInt(value);
+					case "notification.simulated-failure-rate" -> simulatedFailureRate = Double.parseDouble(value);
+					case "notification.retry.max-attempts" -> retryMaxAttempts = Integer.parseInt(value);
+					case "notification.retry.backoff-ms" -> retryBackoffMs = Long.parseLong(value);
+					case "notification.retry.multiplier" -> retryMultiplier = Double.parseDouble(value);
+					case "notification.retry.max-backoff-ms" -> retryMaxBackoffMs = Long.parseLong(value);
+					case "notification.dispatch.max-in-flight" -> dispatchMaxInFlight = Integer.parseInt(value);
+					case "notification.lanes.cancellation.weight" -> cancellationWeight = Integer.parseInt(value);
+					case "notification.lanes.interactive.weight" -> interactiveWeight = Integer.parseInt(value);
+					case "notification.lanes.bulk.weight" -> bulkWeight = Integer.parseInt(value);
+					default -> throw new IllegalArgumentException("Not a reloadable notification setting: " + name);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+			}
+		}
+		return new NotificationSettings(emailEnabled, smsEnabled, emailMaxConcurrent, smsMaxConcurrent,
+				simulatedFailureRate, retryMaxAttempts, retryBackoffMs, retryMultiplier, retryMaxBackoffMs,
+				dispatchMaxInFlight, cancellationWeight, interactiveWeight, bulkWeight);
+	}
+
+	public Map<String, Object> asProperties() {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("notification.email.enabled", emailEnabled);
+		properties.put("notification.sms.enabled", smsEnabled);
+		properties.put("notification.email.max-concurrent", emailMaxConcurrent);
+		properties.put("notification.sms.max-concurrent", smsMaxConcurrent);
+		properties.put("notification.simulated-failure-rate", simulatedFailureRate);
+		properties.put("notification.retry.max-attempts", retryMaxAttempts);
+		properties.put("notification.retry.backoff-ms", retryBackoffMs);
+		properties.put("notification.retry.multiplier", retryMultiplier);
+		properties.put("notification.retry.max-backoff-ms", retryMaxBackoffMs);
+		properties.put("notification.dispatch.max-in-flight", dispatchMaxInFlight);
+		properties.put("notification.lanes.cancellation.weight", cancellationWeight);
+		properties.put("notification.lanes.interactive.weight", interactiveWeight);
+		properties.put("notification.lanes.bulk.weight", bulkWeight);
+		return properties;
+	}
+
+	private static boolean parseBoolean(String value) {
+		if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+			return Boolean.parseBoolean(value);
+		}
+		throw new NumberFormatException(value);
+	}
+
+	private static void atLeast(String name, long value, long minimum) {
+		if (value < minimum) {
+			throw new IllegalArgumentException(name + " must be at least " + minimum + ", was " + value);
+		}
+	}
+}
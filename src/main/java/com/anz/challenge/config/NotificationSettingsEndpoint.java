@@ -0,0 +1,66 @@
+package com.anz.challenge.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/notifications}: the current notification settings and runtime overrides, in the style of the
+ * loggers endpoint. Like every actuator endpoint it is only reachable once exposed via
+ * {@code management.endpoints.web.exposure.include}, and still requires a valid JWT.
+ *
+ * <ul>
+ *     <li>{@code GET} returns the effective settings and the overrides of each source</li>
+ *     <li>{@code POST /actuator/notifications/{property}} with {@code {"value": "..."}} overrides one property;
+ *     without a value the override is removed</li>
+ *     <li>{@code DELETE} removes every override made here</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "notifications")
+public class NotificationSettingsEndpoint {
+
+	@Autowired
+	private NotificationConfig config;
+
+	@ReadOperation
+	public Map<String, Object> settings() {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("settings", config.settings().asProperties());
+		body.put("fileOverrides", config.overrides(NotificationConfig.Source.FILE));
+		body.put("endpointOverrides", config.overrides(NotificationConfig.Source.ENDPOINT));
+		return body;
+	}
+
+	@WriteOperation
+	public synchronized Map<String, Object> override(@Selector String property, @Nullable String value) {
+		Map<String, String> overrides = new HashMap<>(config.overrides(NotificationConfig.Source.ENDPOINT));
+		if (value == null) {
+			overrides.remove(property);
+		} else {
+			overrides.put(property, value);
+		}
+		try {
+			config.apply(NotificationConfig.Source.ENDPOINT, overrides);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+		}
+		return settings();
+	}
+
+	@DeleteOperation
+	public synchronized Map<String, Object> reset() {
+		config.apply(NotificationConfig.Source.ENDPOINT, Map.of());
+		return settings();
+	}
+}
@@ -4,7 +4,12 @@ import com.anz.challenge.model.Order;
 import com.anz.challenge.service.OrderService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -13,11 +18,39 @@ import java.util.stream.IntStream;
 @RequiredArgsConstructor
 public class OrderDataInitializer {
 
+	private static final Logger log = LoggerFactory.getLogger(OrderDataInitializer.class);
+
+	public enum SeedMode {
+		// Seed while the context starts (blocks startup)
+		STARTUP,
+		// Seed in the background once the application is ready to serve requests
+		DEFERRED,
+		DISABLED
+	}
+
 	@Autowired
 	private OrderService service;
 
+	@Value("${order.seed.mode:startup}")
+	private SeedMode mode;
+
 	@PostConstruct
 	public void init() {
+		if (mode == SeedMode.STARTUP) {
+			seed();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		if (mode == SeedMode.DEFERRED) {
+			Thread seeder = new Thread(this::seed, "order-seeder");
+			seeder.setDaemon(true);
+			seeder.start();
+		}
+	}
+
+	void seed() {
 
 		List<Order> orderList = IntStream.rangeClosed(1, 10).mapToObj(i -> {
 			Order order = new Order();
@@ -36,6 +69,7 @@ public class OrderDataInitializer {
 		}).toList();
 
 		service.createBulkOrders(orderList);
+		log.info("Seeded {} sample orders ({} mode)", orderList.size(), mode);
 	}
 
 }
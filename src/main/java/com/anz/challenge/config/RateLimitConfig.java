@@ -0,0 +1,106 @@
+package com.anz.challenge.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import jakarta.annotation.PostConstruct;
+
+@Configuration
+public class RateLimitConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(RateLimitConfig.class);
+
+	@Value("${ratelimit.enabled:true}")
+	private boolean enabled;
+
+	// Per-client token buckets, keyed by JWT subject (or remote address when unauthenticated)
+	@Value("${ratelimit.default.capacity:50}")
+	private int defaultCapacity;
+
+	@Value("${ratelimit.default.refill-per-second:25}")
+	private double defaultRefillPerSecond;
+
+	@Value("${ratelimit.bulk.capacity:5}")
+	private int bulkCapacity;
+
+	@Value("${ratelimit.bulk.refill-per-second:1}")
+	private double bulkRefillPerSecond;
+
+	@Value("${ratelimit.stream.capacity:5}")
+	private int streamCapacity;
+
+	@Value("${ratelimit.stream.refill-per-second:2}")
+	private double streamRefillPerSecond;
+
+	// Global admission control; defaults to the connection pool size so requests are shed before they queue on it
+	@Value("${ratelimit.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:20}}")
+	private int maxConcurrentRequests;
+
+	// Per-tenant bulkheads: the share of the pool one tenant may hold, and how many of its bulk imports run at once
+	@Value("${ratelimit.tenant.max-concurrent-requests:10}")
+	private int tenantMaxConcurrentRequests;
+
+	@Value("${ratelimit.tenant.bulk.max-concurrent-requests:2}")
+	private int tenantBulkMaxConcurrentRequests;
+
+	@Value("${ratelimit.concurrency-retry-after-seconds:1}")
+	private int concurrencyRetryAfterSeconds;
+
+	@Value("${ratelimit.max-tracked-clients:10000}")
+	private int maxTrackedClients;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getDefaultCapacity() {
+		return defaultCapacity;
+	}
+
+	public double getDefaultRefillPerSecond() {
+		return defaultRefillPerSecond;
+	}
+
+	public int getBulkCapacity() {
+		return bulkCapacity;
+	}
+
+	public double getBulkRefillPerSecond() {
+		return bulkRefillPerSecond;
+	}
+
+	public int getStreamCapacity() {
+		return streamCapacity;
+	}
+
+	public double getStreamRefillPerSecond() {
+		return streamRefillPerSecond;
+	}
+
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	public int getTenantMaxConcurrentRequests() {
+		return tenantMaxConcurrentRequests;
+	}
+
+	public int getTenantBulkMaxConcurrentRequests() {
+		return tenantBulkMaxConcurrentRequests;
+	}
+
+	public int getConcurrencyRetryAfterSeconds() {
+		return concurrencyRetryAfterSeconds;
+	}
+
+	public int getMaxTrackedClients() {
+		return maxTrackedClients;
+	}
+
+	@PostConstruct
+	public void init() {
+		log.info("Rate limiting enabled? {} (max concurrent requests={}, per tenant={}, bulk per tenant={})", enabled,
+				maxConcurrentRequests, tenantMaxConcurrentRequests, tenantBulkMaxConcurrentRequests);
+	}
+}
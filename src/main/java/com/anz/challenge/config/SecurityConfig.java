@@ -1,8 +1,10 @@
 package com.anz.challenge.config;
 
+import com.anz.challenge.ratelimit.RateLimitFilter;
 import com.anz.challenge.security.JwtFilter;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -18,6 +20,9 @@ public class SecurityConfig {
 	@Autowired
     private JwtFilter jwtFilter;
 
+	@Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
@@ -37,8 +42,18 @@ public class SecurityConfig {
                 ).permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limits are keyed by the subject JwtFilter authenticated
+            .addFilterAfter(rateLimitFilter, JwtFilter.class);
 
         return http.build();
     }
+
+    // Only run the rate limiter inside the security chain, not again as a plain servlet filter
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
 }
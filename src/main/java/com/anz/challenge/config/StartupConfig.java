@@ -0,0 +1,52 @@
+package com.anz.challenge.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup tuning and measurement.
+ *
+ * With {@code spring.main.lazy-initialization=true} (fast-startup profile) only framework beans such as springdoc
+ * and the H2 console become lazy; the application's own beans stay eager so the first order request doesn't pay
+ * for wiring the service layer. Time-to-ready and time-to-first-request are logged from JVM start.
+ */
+@Configuration
+public class StartupConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+	private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+	@Bean
+	public static LazyInitializationExcludeFilter applicationBeansEager() {
+		// The security filter chain serves every request, so building it lazily only moves the cost onto the first one
+		return (beanName, beanDefinition, beanType) -> (beanType.getName().startsWith("com.anz.challenge.")
+				&& beanType != SwaggerConfig.class) || SecurityFilterChain.class.isAssignableFrom(beanType);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		log.info("Application ready {} ms after JVM start", sinceJvmStart());
+	}
+
+	@EventListener(ServletRequestHandledEvent.class)
+	public void onRequest() {
+		if (firstRequestSeen.compareAndSet(false, true)) {
+			log.info("First request handled {} ms after JVM start", sinceJvmStart());
+		}
+	}
+
+	private static long sinceJvmStart() {
+		return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+	}
+}
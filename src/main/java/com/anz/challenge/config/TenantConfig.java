@@ -0,0 +1,70 @@
+package com.anz.challenge.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.anz.challenge.tenant.TenantContext;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The tenants this deployment serves and the tenant each user belongs to, from {@code tenant.users}
+ * ({@code alice:retail,bob:wholesale}). Users not listed belong to {@link TenantContext#DEFAULT_TENANT}. Tokens are
+ * only issued for, and only accepted with, these tenants.
+ */
+@Configuration
+public class TenantConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(TenantConfig.class);
+
+	private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+	@Value("${tenant.users:}")
+	private String users;
+
+	private Map<String, String> tenantByUser = Map.of();
+	private Set<String> tenants = Set.of(TenantContext.DEFAULT_TENANT);
+
+	@PostConstruct
+	public void init() {
+		Map<String, String> byUser = new LinkedHashMap<>();
+		Set<String> names = new LinkedHashSet<>();
+		names.add(TenantContext.DEFAULT_TENANT);
+		for (String entry : users.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String[] parts = entry.split(":", 2);
+			String tenant = parts.length == 2 ? parts[1].trim() : "";
+			if (!NAME.matcher(tenant).matches()) {
+				throw new IllegalStateException("Invalid tenant.users entry: " + entry.trim());
+			}
+			byUser.put(parts[0].trim(), tenant);
+			names.add(tenant);
+		}
+		tenantByUser = Collections.unmodifiableMap(byUser);
+		tenants = Collections.unmodifiableSet(names);
+		log.info("Tenants: {}", tenants);
+	}
+
+	public String tenantOf(String username) {
+		return tenantByUser.getOrDefault(username, TenantContext.DEFAULT_TENANT);
+	}
+
+	public Set<String> getTenants() {
+		return tenants;
+	}
+
+	public boolean isKnown(String tenant) {
+		return tenants.contains(tenant);
+	}
+}
@@ -0,0 +1,27 @@
+package com.anz.challenge.config;
+
+import com.anz.challenge.tracing.FileSpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Span export. Boot's OpenTelemetry auto-configuration batches finished spans to every {@code SpanExporter} bean;
+ * this adds a local file when {@code order.tracing.file} is set. Collectors can be added the same way (for OTLP,
+ * add {@code opentelemetry-exporter-otlp} and set {@code management.otlp.tracing.endpoint}).
+ */
+@Configuration
+public class TracingConfig {
+
+	@Value("${order.tracing.file:}")
+	private String file;
+
+	@Bean(destroyMethod = "shutdown")
+	@ConditionalOnExpression("!'${order.tracing.file:}'.isBlank()")
+	public FileSpanExporter fileSpanExporter() {
+		return new FileSpanExporter(Path.of(file));
+	}
+}
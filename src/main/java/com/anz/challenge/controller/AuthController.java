@@ -1,5 +1,6 @@
 package com.anz.challenge.controller;
 
+import com.anz.challenge.config.TenantConfig;
 import com.anz.challenge.security.JwtUtil;
 
 import org.springframework.http.ResponseEntity;
@@ -14,12 +15,21 @@ public class AuthController {
 
     private final JwtUtil jwtUtil;
 
-    public AuthController(JwtUtil jwtUtil) {
+    private final TenantConfig tenantConfig;
+
+    public AuthController(JwtUtil jwtUtil, TenantConfig tenantConfig) {
         this.jwtUtil = jwtUtil;
+        this.tenantConfig = tenantConfig;
     }
 
+    // The tenant comes from tenant.users; a requested tenant is only checked against it, never trusted
     @PostMapping("/token")
-    public ResponseEntity<String> token(@RequestParam String username) {
-        return ResponseEntity.ok(jwtUtil.generateToken(username));
+    public ResponseEntity<String> token(@RequestParam String username,
+                                        @RequestParam(required = false) String tenant) {
+        String assigned = tenantConfig.tenantOf(username);
+        if (tenant != null && !tenant.equals(assigned)) {
+            throw new IllegalArgumentException("User " + username + " does not belong to tenant " + tenant);
+        }
+        return ResponseEntity.ok(jwtUtil.generateToken(username, assigned));
     }
 }
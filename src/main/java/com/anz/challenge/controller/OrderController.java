@@ -1,9 +1,18 @@
 package com.anz.challenge.controller;
 
 import com.anz.challenge.model.Order;
+import com.anz.challenge.service.BulkOrderService;
+import com.anz.challenge.service.OrderExportService;
+import com.anz.challenge.service.OrderProjectionService;
 import com.anz.challenge.service.OrderService;
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.dto.OrderField;
+import com.anz.challenge.dto.OrderFields;
 import com.anz.challenge.dto.OrderSummary;
+import com.anz.challenge.dto.SlimPage;
 import com.anz.challenge.exception.OrderNotFoundException;
+import com.anz.challenge.idempotency.IdempotencyStore;
+import com.anz.challenge.tenant.TenantContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -11,6 +20,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -19,10 +29,26 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/orders")
@@ -33,47 +59,100 @@ public class OrderController {
 	@Autowired
 	private OrderService service;
 
+	@Autowired
+	private BulkOrderService bulkService;
+
+	@Autowired
+	private OrderExportService exportService;
+
+	@Autowired
+	private OrderProjectionService projectionService;
+
+	@Autowired
+	private IdempotencyStore idempotency;
+
 	@Operation(summary = "Create a new order")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Order created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Order.class))),
-			@ApiResponse(responseCode = "400", description = "Invalid input") })
+			@ApiResponse(responseCode = "400", description = "Invalid input"),
+			@ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress"),
+			@ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different body") })
 	@PostMapping
 	public ResponseEntity<Order> createOrder(
-			@Parameter(description = "Order object to be created", required = true) @Valid @RequestBody Order order) {
+			@Parameter(description = "Order object to be created", required = true) @Valid @RequestBody Order order,
+			@Parameter(description = "Client-chosen key that makes retries of this request return the original response", in = ParameterIn.HEADER) @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
 		log.info("Request received: Create new order with description='{}'", order.getDescription());
+		if (idempotencyKey != null) {
+			return idempotency.execute("createOrder", idempotencyKey, order, Order.class, () -> createOrder(order));
+		}
+		return createOrder(order);
+	}
+
+	private ResponseEntity<Order> createOrder(Order order) {
 		Order created = service.createOrder(order);
 		log.info("Order created successfully with ID={}", created.getId());
 		return ResponseEntity.ok(created);
-
 	}
 
-	@Operation(summary = "Create multiple orders in bulk")
+	@Operation(summary = "Create multiple orders in bulk", description = "Valid orders are created even if others in the payload are rejected; the report lists violations by payload index.")
 	@ApiResponses(value = {
-			@ApiResponse(responseCode = "200", description = "Orders created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Order.class))),
-			@ApiResponse(responseCode = "400", description = "Invalid input") })
+			@ApiResponse(responseCode = "200", description = "All orders created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkOrderReport.class))),
+			@ApiResponse(responseCode = "207", description = "Some orders created, others rejected", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkOrderReport.class))),
+			@ApiResponse(responseCode = "400", description = "All orders rejected", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkOrderReport.class))),
+			@ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress"),
+			@ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different body") })
 	@PostMapping("/bulkOrders")
-	public ResponseEntity<List<Order>> createOrders(
-			@Parameter(description = "List of orders to be created", required = true) @Valid @RequestBody List<Order> orders) {
+	public ResponseEntity<BulkOrderReport> createOrders(
+			@Parameter(description = "List of orders to be created", required = true) @RequestBody List<Order> orders,
+			@Parameter(description = "Client-chosen key that makes retries of this request return the original response", in = ParameterIn.HEADER) @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
 		log.info("Request received: Bulk create {} orders", orders.size());
-		List<Order> created = service.createBulkOrders(orders);
-		log.info("Bulk order creation completed. {} orders inserted.", created.size());
-		return ResponseEntity.ok(created);
+		if (idempotencyKey != null) {
+			return idempotency.execute("createOrders", idempotencyKey, orders, BulkOrderReport.class,
+					() -> createOrders(orders));
+		}
+		return createOrders(orders);
+	}
+
+	private ResponseEntity<BulkOrderReport> createOrders(List<Order> orders) {
+		BulkOrderReport report = bulkService.createOrders(orders);
+		log.info("Bulk order creation completed. {} orders inserted, {} rejected.", report.created(), report.rejected());
+		if (report.rejected() == 0) {
+			return ResponseEntity.ok(report);
+		}
+		HttpStatus status = report.created() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+		return ResponseEntity.status(status).body(report);
 	}
 
 	@Operation(summary = "Retrieve an order by ID")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Order retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Order.class))),
+			@ApiResponse(responseCode = "304", description = "Order not modified since the given ETag"),
 			@ApiResponse(responseCode = "404", description = "Order not found") })
 	@GetMapping("/{id}")
 	public ResponseEntity<Order> getOrder(
-			@Parameter(description = "ID of the order to retrieve", required = true) @PathVariable Long id) {
+			@Parameter(description = "ID of the order to retrieve", required = true) @PathVariable Long id,
+			WebRequest request) {
 		log.info("Request received: Retrieve order with ID={}", id);
+
+		// Revalidation only needs the version column, not the entity
+		if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+			Optional<Long> version = service.getOrderVersion(id);
+			if (version.isPresent()) {
+				String etag = orderETag(id, version.get());
+				if (request.checkNotModified(etag)) {
+					log.info("Order not modified: ID={}", id);
+					return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+				}
+			}
+		}
+
 		Order order = service.getOrder(id).orElseThrow(() -> {
 			log.warn("Order not found for ID={}", id);
 			return new OrderNotFoundException(id);
 		});
 		log.info("Order retrieved successfully: ID={}, status={}", order.getId(), order.getStatus());
-		return ResponseEntity.ok(order);
+		return ResponseEntity.ok().eTag(orderETag(order.getId(), order.getVersion())).varyBy(HttpHeaders.ACCEPT)
+				.body(order);
 	}
 
 	@Operation(summary = "Update order status")
@@ -108,7 +187,138 @@ public class OrderController {
 		log.info("Search completed: {} orders returned on page {} of {}", ordersPage.getNumberOfElements(),
 				ordersPage.getNumber() + 1, ordersPage.getTotalPages());
 
-		return ResponseEntity.ok(ordersPage);
+		// A matching If-None-Match turns this into a 304 before the page is serialized
+		return ResponseEntity.ok().eTag(pageETag(ordersPage)).varyBy(HttpHeaders.ACCEPT).body(ordersPage);
+	}
+
+	@Operation(summary = "Search orders, returning only the selected fields", description = "Same filters and paging as GET /orders. Only the selected columns are read and the page envelope is reduced to content, page, size and totalElements.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Orders retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlimPage.class))),
+			@ApiResponse(responseCode = "400", description = "Unknown field", content = @Content) })
+	@GetMapping(params = "fields")
+	public ResponseEntity<SlimPage<OrderFields>> searchOrderFields(
+			@Parameter(description = "Filter orders by status", in = ParameterIn.QUERY) @RequestParam(required = false) Order.Status status,
+			@Parameter(description = "Page number", in = ParameterIn.QUERY) @RequestParam(defaultValue = "0") int page,
+			@Parameter(description = "Number of orders per page", in = ParameterIn.QUERY) @RequestParam(defaultValue = "10") int size,
+			@Parameter(description = "Comma-separated fields to return: id, status, createdAt, description (id is always included)", in = ParameterIn.QUERY, required = true) @RequestParam String fields) {
+		Set<OrderField> selected = OrderField.parse(fields);
+		log.info("Request received: Search orders | status={} | page={} | size={} | fields={}",
+				status != null ? status : "ALL", page, size, selected);
+		SlimPage<OrderFields> result = projectionService.findPage(TenantContext.getTenant(), status, selected,
+				PageRequest.of(page, size));
+		log.info("Search completed: {} of {} orders returned", result.content().size(), result.totalElements());
+		return ResponseEntity.ok().eTag(slimPageETag(result, selected)).varyBy(HttpHeaders.ACCEPT).body(result);
+	}
+
+	@Operation(summary = "Full-text search over order descriptions", description = "Every word must match; a trailing * matches a prefix. Results are ranked by relevance.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Matching orders ranked by relevance", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+			@ApiResponse(responseCode = "400", description = "Search text has no words", content = @Content) })
+	@GetMapping("/search")
+	public ResponseEntity<Page<OrderSummary>> searchDescriptions(
+			@Parameter(description = "Words to match in the description, e.g. 'urgent deliv*'", in = ParameterIn.QUERY, required = true) @RequestParam("q") String query,
+			@Parameter(description = "Filter orders by status", in = ParameterIn.QUERY) @RequestParam(required = false) Order.Status status,
+			@Parameter(description = "Created at or after (ISO date-time)", in = ParameterIn.QUERY) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@Parameter(description = "Created at or before (ISO date-time)", in = ParameterIn.QUERY) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@Parameter(description = "Page number", in = ParameterIn.QUERY) @RequestParam(defaultValue = "0") int page,
+			@Parameter(description = "Number of orders per page", in = ParameterIn.QUERY) @RequestParam(defaultValue = "10") int size) {
+		log.info("Request received: Full-text search '{}' | status={} | from={} | to={} | page={} | size={}", query,
+				status != null ? status : "ALL", from, to, page, size);
+		Page<OrderSummary> result = service.searchDescriptions(query, status, from, to, PageRequest.of(page, size));
+		log.info("Full-text search completed: {} of {} matches returned", result.getNumberOfElements(),
+				result.getTotalElements());
+		return ResponseEntity.ok(result);
+	}
+
+	@Operation(summary = "Export orders as CSV", description = "Streams every matching order (hot and archived) in one response; gzip-compressed when the client accepts it.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "CSV stream: id,description,status,created_at,version", content = @Content(mediaType = "text/csv")) })
+	@GetMapping("/export")
+	public void exportOrders(
+			@Parameter(description = "Filter orders by status", in = ParameterIn.QUERY) @RequestParam(required = false) Order.Status status,
+			@Parameter(description = "Created at or after (ISO date-time)", in = ParameterIn.QUERY) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@Parameter(description = "Created at or before (ISO date-time)", in = ParameterIn.QUERY) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			HttpServletResponse response) throws IOException {
+		log.info("Request received: Export orders | status={} | from={} | to={}", status != null ? status : "ALL", from,
+				to);
+		// Written on the request thread rather than as an async StreamingResponseBody: the tenant is thread-bound
+		// and a long export must not hit the async request timeout
+		boolean gzip = acceptsGzip(acceptEncoding);
+		response.setContentType("text/csv;charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"");
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		OutputStream body = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 64 * 1024)) {
+			OrderExportService.ExportResult result = exportService.exportCsv(TenantContext.getTenant(), status, from,
+					to, writer);
+			log.info("Export completed: {} orders in {} ms ({} rows/s, gzip={})", result.rows(), result.millis(),
+					result.rowsPerSecond(), gzip);
+		}
+	}
+
+	// gzip if listed with q > 0, or not listed but covered by a "*" with q > 0; "gzip;q=0" is an explicit refusal
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Double wildcard = null;
+		for (String element : acceptEncoding.split(",")) {
+			String[] params = element.split(";");
+			String coding = params[0].trim().toLowerCase(Locale.ROOT);
+			double q = 1;
+			for (int i = 1; i < params.length; i++) {
+				String param = params[i].trim();
+				if (param.regionMatches(true, 0, "q=", 0, 2)) {
+					try {
+						q = Double.parseDouble(param.substring(2).trim());
+					} catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			if (coding.equals("gzip") || coding.equals("x-gzip")) {
+				return q > 0;
+			}
+			if (coding.equals("*")) {
+				wildcard = q;
+			}
+		}
+		return wildcard != null && wildcard > 0;
+	}
+
+	// Weak validators: Tomcat only compresses responses without a strong ETag, and a gzipped body is not
+	// byte-identical to the plain one anyway. GET revalidation compares weakly, so 304s are unaffected.
+	private static String orderETag(Long id, Long version) {
+		return "W/\"" + id + "-" + (version == null ? 0 : version) + "\"";
+	}
+
+	// Derived from the page coordinates and the id/version of every order on it
+	private static String pageETag(Page<Order> page) {
+		StringBuilder key = new StringBuilder()
+				.append(page.getNumber()).append('/').append(page.getSize()).append('/')
+				.append(page.getTotalElements());
+		for (Order order : page.getContent()) {
+			key.append(';').append(order.getId()).append(':').append(order.getVersion());
+		}
+		return md5ETag(key);
+	}
+
+	// The selected fields are part of the representation, so they are part of the tag
+	private static String slimPageETag(SlimPage<OrderFields> page, Set<OrderField> fields) {
+		StringBuilder key = new StringBuilder(fields.toString()).append('/')
+				.append(page.page()).append('/').append(page.size()).append('/').append(page.totalElements());
+		for (OrderFields order : page.content()) {
+			key.append(';').append(order.id()).append(':').append(order.version());
+		}
+		return md5ETag(key);
+	}
+
+	private static String md5ETag(CharSequence key) {
+		return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
 	}
 
 	@GetMapping("/stream/status/{status}")
@@ -118,4 +328,14 @@ public class OrderController {
 		log.info("Streaming completed: {} orders returned for status '{}'", result.size(), status);
 		return ResponseEntity.ok(result);
 	}
+
+	@GetMapping(value = "/stream/status/{status}", params = "fields")
+	public ResponseEntity<List<OrderFields>> getOrderFieldsByStatus(@PathVariable("status") Order.Status status,
+			@RequestParam String fields) {
+		Set<OrderField> selected = OrderField.parse(fields);
+		log.info("Request received: Stream orders by status '{}' | fields={}", status, selected);
+		List<OrderFields> result = projectionService.findByStatus(TenantContext.getTenant(), status, selected);
+		log.info("Streaming completed: {} orders returned for status '{}'", result.size(), status);
+		return ResponseEntity.ok(result);
+	}
 }
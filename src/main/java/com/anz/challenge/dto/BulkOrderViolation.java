@@ -0,0 +1,7 @@
+package com.anz.challenge.dto;
+
+/**
+ * A validation failure for one element of a bulk order request, identified by its index in the payload.
+ */
+public record BulkOrderViolation(int index, String field, String message) {
+}
@@ -0,0 +1,51 @@
+package com.anz.challenge.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Order attributes a list request can select with {@code fields=}, with the column each one is read from.
+ */
+public enum OrderField {
+
+	ID("id", "id"),
+	STATUS("status", "status"),
+	CREATED_AT("createdAt", "created_at"),
+	DESCRIPTION("description", "description");
+
+	private final String fieldName;
+	private final String column;
+
+	OrderField(String fieldName, String column) {
+		this.fieldName = fieldName;
+		this.column = column;
+	}
+
+	public String fieldName() {
+		return fieldName;
+	}
+
+	public String column() {
+		return column;
+	}
+
+	/**
+	 * Parses a comma-separated list such as {@code id,status}. The id is always included, since it identifies the
+	 * order; unknown names are rejected.
+	 */
+	public static Set<OrderField> parse(String fields) {
+		Set<OrderField> selected = EnumSet.of(ID);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			selected.add(Arrays.stream(values()).filter(f -> f.fieldName.equals(trimmed)).findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("Unknown field '" + trimmed + "'; expected "
+							+ Arrays.stream(values()).map(f -> f.fieldName).collect(Collectors.joining(", ")))));
+		}
+		return selected;
+	}
+}
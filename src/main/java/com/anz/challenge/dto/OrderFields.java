@@ -0,0 +1,27 @@
+package com.anz.challenge.dto;
+
+import com.anz.challenge.model.Order;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * The selected attributes of an order; attributes that were not requested are null and left out of the JSON.
+ * The version is only kept for the page ETag.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderFields(Long id, String status,
+		@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy HH:mm:ss") LocalDateTime createdAt,
+		String description, @JsonIgnore Long version) {
+
+	public static OrderFields of(Order order, Set<OrderField> fields) {
+		return new OrderFields(order.getId(),
+				fields.contains(OrderField.STATUS) ? order.getStatus().name() : null,
+				fields.contains(OrderField.CREATED_AT) ? order.getCreatedAt() : null,
+				fields.contains(OrderField.DESCRIPTION) ? order.getDescription() : null,
+				order.getVersion());
+	}
+}
@@ -0,0 +1,10 @@
+package com.anz.challenge.dto;
+
+import java.util.List;
+
+/**
+ * Page envelope for clients that select fields: just the rows and the paging coordinates, without the
+ * {@code pageable} and {@code sort} blocks of Spring's {@code Page} JSON.
+ */
+public record SlimPage<T>(List<T> content, int page, int size, long totalElements) {
+}
@@ -0,0 +1,7 @@
+package com.anz.challenge.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("A request with Idempotency-Key '" + idempotencyKey + "' is still being processed");
+    }
+}
@@ -0,0 +1,7 @@
+package com.anz.challenge.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super("Idempotency-Key '" + idempotencyKey + "' was already used with a different request body");
+    }
+}
@@ -1,5 +1,7 @@
 package com.anz.challenge.exception;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,6 +11,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
 
+// Must run before GlobalExceptionHandler's catch-all, otherwise validation errors surface as 500
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @RestControllerAdvice
 public class ValidationExceptionHandler {
 
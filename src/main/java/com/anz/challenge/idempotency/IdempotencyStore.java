@@ -0,0 +1,344 @@
+package com.anz.challenge.idempotency;
+
+import com.anz.challenge.concurrent.SingleFlight;
+import com.anz.challenge.exception.IdempotencyConflictException;
+import com.anz.challenge.exception.IdempotencyKeyMismatchException;
+import com.anz.challenge.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Makes create requests safe to retry: the first request with a given {@code Idempotency-Key} runs, and later
+ * requests with the same key (per tenant and operation) get its response back instead of creating the orders again.
+ *
+ * Completed responses are kept for {@code order.idempotency.ttl} in a bounded in-memory map (oldest evicted first
+ * beyond {@code order.idempotency.max-keys}). Concurrent duplicates are coalesced with {@link SingleFlight}, so
+ * only one of them executes. With {@code order.idempotency.persistent=true} the responses are also written to the
+ * {@code idempotency_keys} table, so replays survive restarts and work across instances; a duplicate that arrives at
+ * another instance while the first is still running is rejected with 409. A claim whose owner has not completed it
+ * within {@code order.idempotency.claim-lease} (e.g. the instance died after the orders committed) may be taken over
+ * by a retry. Reusing a key with a different body is rejected with 422. Requests that fail with an exception are not
+ * stored and may be retried.
+ */
+@Component
+public class IdempotencyStore {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+	public static final String HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	static final int MAX_KEY_LENGTH = 255;
+
+	enum Result {
+		EXECUTED, REPLAYED, COALESCED, CONFLICT, MISMATCH
+	}
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	private JdbcTemplate jdbc;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.idempotency.ttl:24h}")
+	private Duration ttl;
+
+	@Value("${order.idempotency.max-keys:100000}")
+	private int maxKeys;
+
+	@Value("${order.idempotency.persistent:false}")
+	private boolean persistent;
+
+	@Value("${order.idempotency.purge-interval-ms:600000}")
+	private long purgeIntervalMs;
+
+	// How long an incomplete claim blocks other instances; should exceed the slowest create request
+	@Value("${order.idempotency.claim-lease:60s}")
+	private Duration claimLease;
+
+	// No result caching here: completed responses live in the map below, which evicts instead of refusing entries
+	private final SingleFlight<Key, StoredResponse> inFlight = new SingleFlight<>(0, 0);
+
+	// Insertion order is expiry order, since every entry has the same TTL
+	private final LinkedHashMap<Key, StoredResponse> completed = new LinkedHashMap<>();
+
+	private final Map<Result, Counter> counters = new EnumMap<>(Result.class);
+	private ScheduledExecutorService purger;
+
+	@PostConstruct
+	public void init() {
+		if (meterRegistry != null) {
+			for (Result result : Result.values()) {
+				counters.put(result, Counter.builder("orders.idempotency.requests")
+						.description("Requests carrying an Idempotency-Key, by outcome")
+						.tag("result", result.name().toLowerCase())
+						.register(meterRegistry));
+			}
+		}
+		if (persistent) {
+			if (jdbc == null) {
+				throw new IllegalStateException("order.idempotency.persistent requires a DataSource");
+			}
+			purger = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "idempotency-purger");
+				t.setDaemon(true);
+				return t;
+			});
+			purger.scheduleWithFixedDelay(this::purgeSafely, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+		}
+		log.info("Idempotency keys kept for {} (up to {} in memory{})", ttl, maxKeys,
+				persistent ? ", persisted to idempotency_keys" : "");
+	}
+
+	@PreDestroy
+	public void close() {
+		if (purger != null) {
+			purger.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs {@code action} once per key and returns its response, or the stored response for a replay (marked with
+	 * the {@value #REPLAYED_HEADER} header). {@code request} identifies the payload, so a key cannot be reused for a
+	 * different one.
+	 */
+	public <T> ResponseEntity<T> execute(String operation, String idempotencyKey, Object request, Class<T> bodyType,
+			Supplier<ResponseEntity<T>> action) {
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+		}
+		Key key = new Key(TenantContext.getTenant(), operation, idempotencyKey);
+		String requestHash = fingerprint(request);
+
+		StoredResponse response;
+		boolean replayed;
+		try {
+			response = lookup(key, bodyType);
+			if (response != null) {
+				replayed = true;
+				count(Result.REPLAYED);
+			} else {
+				boolean[] executed = new boolean[1];
+				response = inFlight.execute(key, () -> {
+					// A leader that finished just before we joined may already have stored it
+					StoredResponse stored = lookup(key, bodyType);
+					if (stored != null) {
+						return stored;
+					}
+					executed[0] = true;
+					return run(key, requestHash, action);
+				});
+				replayed = !executed[0];
+				count(replayed ? Result.COALESCED : Result.EXECUTED);
+			}
+		} catch (IdempotencyConflictException e) {
+			count(Result.CONFLICT);
+			throw e;
+		}
+
+		if (!response.requestHash().equals(requestHash)) {
+			count(Result.MISMATCH);
+			throw new IdempotencyKeyMismatchException(idempotencyKey);
+		}
+		ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status());
+		if (replayed) {
+			builder.header(REPLAYED_HEADER, "true");
+		}
+		return builder.body(bodyType.cast(response.body()));
+	}
+
+	private <T> StoredResponse run(Key key, String requestHash, Supplier<ResponseEntity<T>> action) {
+		if (persistent) {
+			claim(key, requestHash);
+		}
+		ResponseEntity<T> result;
+		try {
+			result = action.get();
+		} catch (RuntimeException | Error e) {
+			if (persistent) {
+				release(key);
+			}
+			throw e;
+		}
+		StoredResponse response = new StoredResponse(requestHash, result.getStatusCode().value(), result.getBody(),
+				System.nanoTime() + ttl.toNanos());
+		remember(key, response);
+		if (persistent) {
+			complete(key, response);
+		}
+		return response;
+	}
+
+	// The orders are already committed, so failing here would report an error for a request that succeeded. This
+	// instance still replays from memory; elsewhere the claim blocks retries until its lease runs out
+	private void complete(Key key, StoredResponse response) {
+		try {
+			jdbc.update("update idempotency_keys set status_code = ?, body = ? where key_id = ?", response.status(),
+					toJson(response.body()), key.id());
+		} catch (RuntimeException e) {
+			log.error("Failed to store the response for idempotency key {}: {}", key.id(), e.getMessage());
+		}
+	}
+
+	private void release(Key key) {
+		try {
+			jdbc.update("delete from idempotency_keys where key_id = ?", key.id());
+		} catch (RuntimeException e) {
+			log.warn("Failed to release idempotency key {}, it expires after {}: {}", key.id(), claimLease,
+					e.getMessage());
+		}
+	}
+
+	private StoredResponse lookup(Key key, Class<?> bodyType) {
+		synchronized (completed) {
+			StoredResponse cached = completed.get(key);
+			if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+				return cached;
+			}
+		}
+		if (!persistent) {
+			return null;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		List<StoredResponse> rows = jdbc.query(
+				"select request_hash, status_code, body, expires_at, claimed_at from idempotency_keys where key_id = ?",
+				(rs, rowNum) -> {
+					LocalDateTime expiresAt = rs.getTimestamp("expires_at").toLocalDateTime();
+					if (!expiresAt.isAfter(now)) {
+						return null;
+					}
+					int status = rs.getInt("status_code");
+					if (rs.wasNull()) {
+						// Still running elsewhere, unless the claim is stale and may be taken over
+						if (!isStale(rs.getTimestamp("claimed_at").toLocalDateTime(), now)) {
+							throw new IdempotencyConflictException(key.idempotencyKey());
+						}
+						return null;
+					}
+					return new StoredResponse(rs.getString("request_hash"), status,
+							fromJson(rs.getString("body"), bodyType),
+							System.nanoTime() + Duration.between(now, expiresAt).toNanos());
+				}, key.id());
+		StoredResponse stored = rows.isEmpty() ? null : rows.get(0);
+		if (stored != null) {
+			remember(key, stored);
+		}
+		return stored;
+	}
+
+	// The primary key makes exactly one instance the owner of a key; expired rows and stale claims are cleared first
+	private void claim(Key key, String requestHash) {
+		LocalDateTime now = LocalDateTime.now();
+		jdbc.update("delete from idempotency_keys where key_id = ? and (expires_at <= ? "
+				+ "or (status_code is null and claimed_at <= ?))", key.id(), Timestamp.valueOf(now),
+				Timestamp.valueOf(now.minus(claimLease)));
+		try {
+			jdbc.update("insert into idempotency_keys (key_id, request_hash, expires_at, claimed_at) values (?, ?, ?, ?)",
+					key.id(), requestHash, Timestamp.valueOf(now.plus(ttl)), Timestamp.valueOf(now));
+		} catch (DuplicateKeyException e) {
+			throw new IdempotencyConflictException(key.idempotencyKey());
+		}
+	}
+
+	private boolean isStale(LocalDateTime claimedAt, LocalDateTime now) {
+		return !claimedAt.plus(claimLease).isAfter(now);
+	}
+
+	private void remember(Key key, StoredResponse response) {
+		synchronized (completed) {
+			completed.put(key, response);
+			long now = System.nanoTime();
+			Iterator<StoredResponse> oldest = completed.values().iterator();
+			while (oldest.hasNext()) {
+				StoredResponse entry = oldest.next();
+				if (completed.size() <= maxKeys && entry.expiresAt() - now > 0) {
+					break;
+				}
+				oldest.remove();
+			}
+		}
+	}
+
+	int purge() {
+		return jdbc.update("delete from idempotency_keys where expires_at <= ?", Timestamp.valueOf(LocalDateTime.now()));
+	}
+
+	private void purgeSafely() {
+		try {
+			int purged = purge();
+			if (purged > 0) {
+				log.debug("Purged {} expired idempotency keys", purged);
+			}
+		} catch (RuntimeException e) {
+			log.warn("Idempotency key purge failed: {}", e.getMessage());
+		}
+	}
+
+	private String fingerprint(Object request) {
+		return DigestUtils.md5DigestAsHex(toJson(request).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Object fromJson(String json, Class<?> type) {
+		try {
+			return json == null ? null : objectMapper.readValue(json, type);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void count(Result result) {
+		Counter counter = counters.get(result);
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+	private record Key(String tenant, String operation, String idempotencyKey) {
+
+		String id() {
+			return tenant + ":" + operation + ":" + idempotencyKey;
+		}
+	}
+
+	private record StoredResponse(String requestHash, int status, Object body, long expiresAt) {
+	}
+}
@@ -0,0 +1,93 @@
+package com.anz.challenge.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped journal file holding a fixed number of records starting at {@link #baseOffset()}.
+ */
+final class JournalSegment {
+
+	static final String SUFFIX = ".journal";
+
+	private final Path file;
+	private final long baseOffset;
+	private final int capacity;
+	private final MappedByteBuffer buffer;
+
+	private JournalSegment(Path file, long baseOffset, int capacity, MappedByteBuffer buffer) {
+		this.file = file;
+		this.baseOffset = baseOffset;
+		this.capacity = capacity;
+		this.buffer = buffer;
+	}
+
+	static JournalSegment open(Path directory, long baseOffset, int capacity) throws IOException {
+		Path file = directory.resolve(fileName(baseOffset));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					(long) capacity * OrderEventCodec.RECORD_SIZE);
+			return new JournalSegment(file, baseOffset, capacity, buffer);
+		}
+	}
+
+	static String fileName(long baseOffset) {
+		return String.format("%020d%s", baseOffset, SUFFIX);
+	}
+
+	static long baseOffsetOf(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+	}
+
+	/**
+	 * Number of valid records at the start of the segment; used to find the write position after a restart.
+	 */
+	int recover() {
+		int count = 0;
+		while (count < capacity && read(baseOffset + count) != null) {
+			count++;
+		}
+		return count;
+	}
+
+	OrderEvent read(long offset) {
+		return OrderEventCodec.decode(buffer, position(offset), offset);
+	}
+
+	int position(long offset) {
+		return Math.toIntExact((offset - baseOffset) * OrderEventCodec.RECORD_SIZE);
+	}
+
+	void force(int fromPosition, int toPosition) {
+		if (toPosition > fromPosition) {
+			buffer.force(fromPosition, toPosition - fromPosition);
+		}
+	}
+
+	void delete() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	MappedByteBuffer buffer() {
+		return buffer;
+	}
+
+	long baseOffset() {
+		return baseOffset;
+	}
+
+	long endOffset() {
+		return baseOffset + capacity;
+	}
+
+	int capacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,16 @@
+package com.anz.challenge.journal;
+
+import com.anz.challenge.model.Order;
+
+/**
+ * A single entry of the order event journal.
+ * The offset is the global, monotonically increasing position of the event in the journal.
+ */
+public record OrderEvent(long offset, Type type, long orderId, Order.Status previousStatus, Order.Status status,
+		long timestamp) {
+
+	public enum Type {
+		CREATED,
+		STATUS_CHANGED
+	}
+}
@@ -0,0 +1,73 @@
+package com.anz.challenge.journal;
+
+import com.anz.challenge.model.Order;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size binary encoding of {@link OrderEvent}s.
+ *
+ * <pre>
+ * 0      type (0 = empty slot)
+ * 1      previous status ordinal + 1 (0 = none)
+ * 2      status ordinal + 1
+ * 3      reserved
+ * 4..11  order id
+ * 12..19 timestamp (epoch millis)
+ * 20..23 CRC32C of bytes 0..19
+ * </pre>
+ *
+ * Fixed-size records let a reader seek straight to an offset without an index.
+ */
+final class OrderEventCodec {
+
+	static final int RECORD_SIZE = 24;
+
+	private static final int PAYLOAD_SIZE = 20;
+	private static final Order.Status[] STATUSES = Order.Status.values();
+	private static final OrderEvent.Type[] TYPES = OrderEvent.Type.values();
+
+	private OrderEventCodec() {
+	}
+
+	static void encode(ByteBuffer buffer, int position, OrderEvent.Type type, long orderId,
+			Order.Status previousStatus, Order.Status status, long timestamp) {
+		buffer.put(position, (byte) (type.ordinal() + 1));
+		buffer.put(position + 1, statusCode(previousStatus));
+		buffer.put(position + 2, statusCode(status));
+		buffer.put(position + 3, (byte) 0);
+		buffer.putLong(position + 4, orderId);
+		buffer.putLong(position + 12, timestamp);
+		buffer.putInt(position + PAYLOAD_SIZE, checksum(buffer, position));
+	}
+
+	/**
+	 * Decodes the record at the given position, or returns null if the slot is empty or torn.
+	 */
+	static OrderEvent decode(ByteBuffer buffer, int position, long offset) {
+		byte type = buffer.get(position);
+		if (type <= 0 || type > TYPES.length) {
+			return null;
+		}
+		if (buffer.getInt(position + PAYLOAD_SIZE) != checksum(buffer, position)) {
+			return null;
+		}
+		return new OrderEvent(offset, TYPES[type - 1], buffer.getLong(position + 4), status(buffer.get(position + 1)),
+				status(buffer.get(position + 2)), buffer.getLong(position + 12));
+	}
+
+	private static int checksum(ByteBuffer buffer, int position) {
+		CRC32C crc = new CRC32C();
+		crc.update(buffer.slice(position, PAYLOAD_SIZE));
+		return (int) crc.getValue();
+	}
+
+	private static byte statusCode(Order.Status status) {
+		return status == null ? 0 : (byte) (status.ordinal() + 1);
+	}
+
+	private static Order.Status status(byte code) {
+		return code == 0 ? null : STATUSES[code - 1];
+	}
+}
@@ -0,0 +1,308 @@
+package com.anz.challenge.journal;
+
+import com.anz.challenge.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of order events stored in segmented memory-mapped files.
+ *
+ * Writers are serialised; readers never block and only see events below {@link #nextOffset()}.
+ * Dirty pages are forced to disk once {@code flushBatchSize} events are pending, or by a background
+ * flusher every {@code flushIntervalMs}, so an fsync is shared by a batch of appends.
+ *
+ * The directory is owned by one journal at a time, through a lock on its {@value #LOCK_FILE} file held until
+ * {@link #close()}: a second process or application context opening it fails instead of appending to the same
+ * segments.
+ */
+public class OrderEventJournal implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderEventJournal.class);
+
+	static final String LOCK_FILE = "journal.lock";
+
+	private final boolean enabled;
+	private final Path directory;
+	private final int segmentRecords;
+	private final int retentionSegments;
+	private final int flushBatchSize;
+	private final FileChannel lockChannel;
+
+	// Guarded by this
+	private final Deque<JournalSegment> segments = new ArrayDeque<>();
+	private JournalSegment active;
+	private int flushedPosition;
+	private int unflushed;
+	private boolean closed;
+
+	// Published to readers; segments are added before any offset inside them becomes visible
+	private volatile JournalSegment[] readable = new JournalSegment[0];
+	private volatile long nextOffset;
+
+	private final ScheduledExecutorService flusher;
+
+	private OrderEventJournal(boolean enabled, Path directory, FileChannel lockChannel, int segmentRecords,
+			int retentionSegments, int flushBatchSize, long flushIntervalMs) {
+		this.enabled = enabled;
+		this.lockChannel = lockChannel;
+		this.directory = directory;
+		this.segmentRecords = segmentRecords;
+		this.retentionSegments = retentionSegments;
+		this.flushBatchSize = flushBatchSize;
+		if (enabled) {
+			this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "order-journal-flusher");
+				t.setDaemon(true);
+				return t;
+			});
+			this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+		} else {
+			this.flusher = null;
+		}
+	}
+
+	/**
+	 * Opens (or creates) the journal in the given directory, recovering the write position from the last segment.
+	 */
+	public static OrderEventJournal open(Path directory, int segmentRecords, int retentionSegments, int flushBatchSize,
+			long flushIntervalMs) throws IOException {
+		if (segmentRecords <= 0 || retentionSegments <= 0 || flushBatchSize <= 0 || flushIntervalMs <= 0) {
+			throw new IllegalArgumentException("Journal sizes and intervals must be positive");
+		}
+		Files.createDirectories(directory);
+		FileChannel lockChannel = lock(directory);
+		OrderEventJournal journal = new OrderEventJournal(true, directory, lockChannel, segmentRecords,
+				retentionSegments, flushBatchSize, flushIntervalMs);
+		try {
+			journal.recover();
+		} catch (IOException | RuntimeException e) {
+			journal.close();
+			throw e;
+		}
+		return journal;
+	}
+
+	// Within one JVM a held lock surfaces as OverlappingFileLockException rather than a null lock
+	private static FileChannel lock(Path directory) throws IOException {
+		FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		FileLock lock;
+		try {
+			lock = channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (lock == null) {
+			channel.close();
+			throw new IllegalStateException("Order event journal directory " + directory.toAbsolutePath()
+					+ " is already in use; give each instance its own order.journal.directory");
+		}
+		return channel;
+	}
+
+	/**
+	 * A journal that ignores appends and has nothing to replay.
+	 */
+	public static OrderEventJournal disabled() {
+		return new OrderEventJournal(false, null, null, 1, 1, 1, 1);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public long recordCreated(Order order) {
+		return append(OrderEvent.Type.CREATED, order.getId(), null, order.getStatus());
+	}
+
+	public long recordStatusChange(Order order, Order.Status previousStatus) {
+		return append(OrderEvent.Type.STATUS_CHANGED, order.getId(), previousStatus, order.getStatus());
+	}
+
+	/**
+	 * Appends an event and returns its offset, or -1 if the journal is disabled.
+	 */
+	public synchronized long append(OrderEvent.Type type, long orderId, Order.Status previousStatus,
+			Order.Status status) {
+		if (!enabled) {
+			return -1;
+		}
+		if (closed) {
+			throw new IllegalStateException("Order event journal is closed");
+		}
+		long offset = nextOffset;
+		if (offset == active.endOffset()) {
+			roll(offset);
+		}
+		OrderEventCodec.encode(active.buffer(), active.position(offset), type, orderId, previousStatus, status,
+				System.currentTimeMillis());
+		nextOffset = offset + 1;
+		if (++unflushed >= flushBatchSize) {
+			forceActive();
+		}
+		return offset;
+	}
+
+	/**
+	 * Forces all pending appends to disk.
+	 */
+	public synchronized void flush() {
+		if (enabled && !closed && unflushed > 0) {
+			forceActive();
+		}
+	}
+
+	/**
+	 * Reads up to {@code maxEvents} events starting at {@code fromOffset}.
+	 */
+	public List<OrderEvent> read(long fromOffset, int maxEvents) {
+		List<OrderEvent> events = new ArrayList<>(Math.min(maxEvents, 1024));
+		replay(fromOffset, maxEvents, events::add);
+		return events;
+	}
+
+	/**
+	 * Feeds events starting at {@code fromOffset} to the consumer and returns the offset to resume from.
+	 * Offsets older than the retained segments are skipped, so replay starts at {@link #firstOffset()}.
+	 */
+	public long replay(long fromOffset, int maxEvents, Consumer<OrderEvent> consumer) {
+		long end = nextOffset;
+		JournalSegment[] snapshot = readable;
+		long offset = Math.max(fromOffset, 0);
+		int delivered = 0;
+		for (JournalSegment segment : snapshot) {
+			if (segment.endOffset() <= offset) {
+				continue;
+			}
+			offset = Math.max(offset, segment.baseOffset());
+			long limit = Math.min(segment.endOffset(), end);
+			while (offset < limit && delivered < maxEvents) {
+				OrderEvent event = segment.read(offset);
+				if (event == null) {
+					return offset;
+				}
+				consumer.accept(event);
+				offset++;
+				delivered++;
+			}
+			if (delivered >= maxEvents || offset >= end) {
+				break;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Offset of the oldest event still retained.
+	 */
+	public long firstOffset() {
+		JournalSegment[] snapshot = readable;
+		return snapshot.length == 0 ? nextOffset : snapshot[0].baseOffset();
+	}
+
+	/**
+	 * Offset the next appended event will receive.
+	 */
+	public long nextOffset() {
+		return nextOffset;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (!enabled || closed) {
+			return;
+		}
+		if (unflushed > 0 && active != null) {
+			forceActive();
+		}
+		closed = true;
+		flusher.shutdownNow();
+		try {
+			// Closing the channel releases the lock
+			lockChannel.close();
+		} catch (IOException e) {
+			log.warn("Failed to release the order event journal lock in {}: {}", directory, e.getMessage());
+		}
+	}
+
+	private void recover() throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.list(directory)) {
+			files = stream.filter(p -> p.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+					.sorted(Comparator.comparingLong(JournalSegment::baseOffsetOf))
+					.toList();
+		}
+		synchronized (this) {
+			for (Path file : files) {
+				segments.addLast(JournalSegment.open(directory, JournalSegment.baseOffsetOf(file), segmentRecords));
+			}
+			if (segments.isEmpty()) {
+				segments.addLast(JournalSegment.open(directory, 0, segmentRecords));
+			}
+			active = segments.peekLast();
+			int recovered = active.recover();
+			nextOffset = active.baseOffset() + recovered;
+			flushedPosition = active.position(nextOffset);
+			enforceRetention();
+			publish();
+		}
+		log.info("Order event journal opened at {}: offsets [{}, {})", directory, firstOffset(), nextOffset);
+	}
+
+	private void roll(long baseOffset) {
+		forceActive();
+		try {
+			active = JournalSegment.open(directory, baseOffset, segmentRecords);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to roll order event journal at offset " + baseOffset, e);
+		}
+		segments.addLast(active);
+		flushedPosition = 0;
+		enforceRetention();
+		publish();
+	}
+
+	private void enforceRetention() {
+		while (segments.size() > retentionSegments) {
+			JournalSegment expired = segments.removeFirst();
+			try {
+				expired.delete();
+				log.info("Deleted journal segment starting at offset {}", expired.baseOffset());
+			} catch (IOException e) {
+				log.warn("Failed to delete journal segment starting at offset {}: {}", expired.baseOffset(),
+						e.getMessage());
+			}
+		}
+	}
+
+	private void forceActive() {
+		int position = active.position(nextOffset);
+		active.force(flushedPosition, position);
+		flushedPosition = position;
+		unflushed = 0;
+	}
+
+	private void publish() {
+		readable = segments.toArray(new JournalSegment[0]);
+	}
+}
@@ -0,0 +1,56 @@
+package com.anz.challenge.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.TenantId;
+
+import jakarta.persistence.*;
+
+/**
+ * A terminal order moved out of the hot {@code orders} table by {@code OrderArchive}. Rows are written with
+ * set-based SQL and never change afterwards; reads map them back to {@link Order}.
+ */
+@Entity
+@Table(name = "orders_archive",
+				indexes = {
+				        @Index(name = "idx_orders_archive_tenant_status", columnList = "tenant_id, status, id")
+				    })
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenant;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedOrder() {}
+
+    public Order toOrder() {
+        Order order = new Order(id, description, status);
+        order.setTenant(tenant);
+        order.setCreatedAt(createdAt);
+        order.setVersion(version);
+        return order;
+    }
+
+    public Long getId() { return id; }
+
+    public Order.Status getStatus() { return status; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
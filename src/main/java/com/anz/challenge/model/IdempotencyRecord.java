@@ -0,0 +1,40 @@
+package com.anz.challenge.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * A stored response for an {@code Idempotency-Key}, shared by all instances when {@code order.idempotency.persistent}
+ * is enabled. {@code IdempotencyStore} reads and writes the table with plain SQL; a row without a status code is a
+ * request still in progress, owned by the instance that claimed it at {@code claimed_at}.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+				indexes = {
+				        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+				    })
+public class IdempotencyRecord {
+
+    // tenant:operation:key
+    @Id
+    @Column(name = "key_id", length = 400)
+    private String keyId;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Lob
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    protected IdempotencyRecord() {}
+}
@@ -3,19 +3,24 @@ package com.anz.challenge.model;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
 
+import org.hibernate.annotations.TenantId;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
 @Table(name = "orders",
+				// Every query is filtered by tenant, so tenant_id leads each index and a tenant's rows stay clustered
 				indexes = {
-				        @Index(name = "idx_orders_status", columnList = "status"),
-				        @Index(name = "idx_orders_created_at", columnList = "createdAt"),
-				        @Index(name = "idx_orders_status_created_at", columnList = "status, createdAt")
+				        @Index(name = "idx_orders_tenant_status", columnList = "tenant_id, status"),
+				        @Index(name = "idx_orders_tenant_created_at", columnList = "tenant_id, createdAt"),
+				        @Index(name = "idx_orders_tenant_status_created_at", columnList = "tenant_id, status, createdAt")
 				    })
 public class Order {
 
@@ -23,6 +28,12 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Set by Hibernate from the session tenant on insert; clients cannot choose it
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String tenant;
+
     @NotBlank(message = "Description must not be empty")
     private String description;
 
@@ -34,6 +45,11 @@ public class Order {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy HH:mm:ss")
     private LocalDateTime createdAt;
 
+    // Optimistic-lock version, bumped on every update; exposed to clients only as the ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     // Default constructor
     public Order() {}
 
@@ -56,6 +72,9 @@ public class Order {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public String getTenant() { return tenant; }
+    public void setTenant(String tenant) { this.tenant = tenant; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -69,10 +88,18 @@ public class Order {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     // Enum for Order status
     public enum Status {
         CREATED,
         COMPLETED,
-        CANCELLED
+        CANCELLED;
+
+        // Terminal orders can never change status again
+        public boolean isTerminal() {
+            return this == COMPLETED || this == CANCELLED;
+        }
     }
 }
@@ -0,0 +1,135 @@
+package com.anz.challenge.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * POSTs notifications as JSON to an HTTP endpoint through a shared {@link HttpClient}.
+ *
+ * At most {@code maxConcurrent} requests are in flight; further sends wait in a queue and are started as earlier
+ * ones complete, so callers never block. A lowered limit takes effect as requests complete; a raised one as soon as
+ * the next request completes. The idempotency key ({@code orderId:status}) is sent on every attempt,
+ * letting the receiver drop duplicates caused by retries.
+ */
+public class HttpNotificationChannel implements NotificationChannel {
+
+	private static final Logger log = LoggerFactory.getLogger(HttpNotificationChannel.class);
+
+	private final String name;
+	private final BooleanSupplier enabled;
+	private final URI endpoint;
+	private final HttpClient client;
+	private final Duration timeout;
+	private final IntSupplier maxConcurrent;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+	public HttpNotificationChannel(String name, boolean enabled, URI endpoint, HttpClient client, Duration timeout,
+			int maxConcurrent) {
+		this(name, () -> enabled, endpoint, client, timeout, () -> maxConcurrent);
+	}
+
+	// The switch and the limit are read on every send, so they follow runtime reloads
+	public HttpNotificationChannel(String name, BooleanSupplier enabled, URI endpoint, HttpClient client,
+			Duration timeout, IntSupplier maxConcurrent) {
+		this.name = name;
+		this.enabled = enabled;
+		this.endpoint = endpoint;
+		this.client = client;
+		this.timeout = timeout;
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled.getAsBoolean();
+	}
+
+	@Override
+	public CompletableFuture<Void> send(Long orderId, String status) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		waiting.add(() -> post(orderId, status, result));
+		drain();
+		return result;
+	}
+
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	public int queued() {
+		return waiting.size();
+	}
+
+	private void drain() {
+		int limit = maxConcurrent.getAsInt();
+		while (!waiting.isEmpty()) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				// The send that completes next calls drain() again
+				return;
+			}
+			if (!inFlight.compareAndSet(current, current + 1)) {
+				continue;
+			}
+			Runnable next = waiting.poll();
+			if (next == null) {
+				inFlight.decrementAndGet();
+				continue;
+			}
+			next.run();
+		}
+	}
+
+	private void post(Long orderId, String status, CompletableFuture<Void> result) {
+		HttpRequest request = HttpRequest.newBuilder(endpoint)
+				.timeout(timeout)
+				.header("Content-Type", "application/json")
+				.header("Idempotency-Key", orderId + ":" + status)
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"orderId\":" + orderId + ",\"status\":\"" + status + "\",\"channel\":\"" + name + "\"}"))
+				.build();
+		try {
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, error) -> {
+						inFlight.decrementAndGet();
+						drain();
+						if (error != null) {
+							Throwable cause = error instanceof CompletionException && error.getCause() != null
+									? error.getCause() : error;
+							result.completeExceptionally(new RuntimeException(
+									name + " service unreachable for order " + orderId + ": " + cause, cause));
+						} else if (response.statusCode() / 100 != 2) {
+							result.completeExceptionally(new RuntimeException(
+									name + " service returned " + response.statusCode() + " for order " + orderId));
+						} else {
+							log.info("{} sent: Order {} changed to {}", name, orderId, status);
+							result.complete(null);
+						}
+					});
+		} catch (RuntimeException e) {
+			inFlight.decrementAndGet();
+			result.completeExceptionally(e);
+			drain();
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.anz.challenge.notification;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A delivery channel for order status notifications (email, SMS, ...). Every {@code NotificationChannel} bean is
+ * picked up by {@code NotificationService}.
+ *
+ * {@link #send} must not block: the returned future completes when the notification has been delivered, or
+ * exceptionally with a {@link RuntimeException} for a transient failure that may be retried.
+ */
+public interface NotificationChannel {
+
+	String name();
+
+	boolean isEnabled();
+
+	CompletableFuture<Void> send(Long orderId, String status);
+}
@@ -0,0 +1,58 @@
+package com.anz.challenge.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Log-only channel used when no endpoint is configured; fails at a configurable rate to exercise retries.
+ */
+public class SimulatedNotificationChannel implements NotificationChannel {
+
+	private static final Logger log = LoggerFactory.getLogger(SimulatedNotificationChannel.class);
+
+	private final String name;
+	private final BooleanSupplier enabled;
+	private final DoubleSupplier failureRate;
+
+	public SimulatedNotificationChannel(String name, boolean enabled, double failureRate) {
+		this(name, () -> enabled, () -> failureRate);
+	}
+
+	public SimulatedNotificationChannel(String name, BooleanSupplier enabled, DoubleSupplier failureRate) {
+		this.name = name;
+		this.enabled = enabled;
+		this.failureRate = failureRate;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled.getAsBoolean();
+	}
+
+	@Override
+	public CompletableFuture<Void> send(Long orderId, String status) {
+		double randomValue = ThreadLocalRandom.current().nextDouble();
+		double threshold = failureRate.getAsDouble();
+		boolean shouldFail = randomValue < threshold;
+
+		log.info("simulateFailure - orderId={}, type={}, randomValue={}, threshold={}, shouldFail={}",
+				orderId, name, randomValue, threshold, shouldFail);
+
+		if (shouldFail) {
+			return CompletableFuture.failedFuture(
+					new RuntimeException(name + " service simulated failure for order " + orderId));
+		}
+		log.info("{} sent: Order {} changed to {}", name, orderId, status);
+		return CompletableFuture.completedFuture(null);
+	}
+}
@@ -0,0 +1,80 @@
+package com.anz.challenge.profiling;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jdk.jfr.Event;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the observations already opened for tracing into JFR events: controller, service and repository calls
+ * become {@link OrderOperationEvent}s, channel attempts {@link NotificationAttemptEvent}s and token checks
+ * {@link JwtValidationEvent}s. In a recording they line up with GC pauses, lock contention and I/O on the same
+ * threads.
+ *
+ * While no recording has the events enabled, an observation costs one {@link Event#isEnabled()} check here.
+ */
+@Component
+public class JfrObservationHandler implements ObservationHandler<Observation.Context> {
+
+	@Override
+	public void onStart(Observation.Context context) {
+		Event event = switch (context.getName()) {
+			case "order.controller", "order.service", "order.repository" -> new OrderOperationEvent();
+			case "order.notification.attempt" -> new NotificationAttemptEvent();
+			case "order.jwt.authenticate" -> new JwtValidationEvent();
+			default -> null;
+		};
+		if (event == null || !event.isEnabled()) {
+			return;
+		}
+		event.begin();
+		context.put(Event.class, event);
+	}
+
+	@Override
+	public void onStop(Observation.Context context) {
+		Event event = context.get(Event.class);
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (!event.shouldCommit()) {
+			return;
+		}
+		Throwable error = context.getError();
+		if (event instanceof OrderOperationEvent operation) {
+			operation.layer = value(context, "layer");
+			operation.operation = context.getContextualName();
+			operation.failed = error != null;
+			operation.error = error != null ? error.toString() : null;
+		} else if (event instanceof NotificationAttemptEvent attempt) {
+			attempt.channel = value(context, "channel");
+			attempt.orderId = number(context, "order.id");
+			attempt.attempt = (int) number(context, "attempt");
+			attempt.failed = error != null;
+			attempt.error = error != null ? error.toString() : null;
+		} else if (event instanceof JwtValidationEvent validation) {
+			validation.valid = Boolean.parseBoolean(value(context, "valid"));
+		}
+		event.commit();
+	}
+
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+		return true;
+	}
+
+	private static String value(Observation.Context context, String key) {
+		KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+		if (keyValue == null) {
+			keyValue = context.getHighCardinalityKeyValue(key);
+		}
+		return keyValue != null ? keyValue.getValue() : null;
+	}
+
+	private static long number(Observation.Context context, String key) {
+		String value = value(context, key);
+		return value != null ? Long.parseLong(value) : 0;
+	}
+}
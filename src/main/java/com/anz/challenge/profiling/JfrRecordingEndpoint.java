@@ -0,0 +1,176 @@
+package com.anz.challenge.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@code /actuator/jfr}: on-demand Java Flight Recorder recordings with the low-overhead {@code order.jfr.settings}
+ * configuration ({@code default}, about 1% overhead) plus this application's events (see
+ * {@link JfrObservationHandler}). Like every actuator endpoint it is only reachable once exposed, and still requires a
+ * valid JWT.
+ *
+ * <ul>
+ *     <li>{@code POST} starts a recording, optionally {@code {"duration": "2m"}}; it stops by itself after the
+ *     duration (at most {@code order.jfr.max-duration})</li>
+ *     <li>{@code DELETE /actuator/jfr/{id}} stops it early</li>
+ *     <li>{@code GET} lists recordings, {@code GET /actuator/jfr/{id}} downloads a finished one</li>
+ * </ul>
+ *
+ * Recordings are written to {@code order.jfr.directory}; only one runs at a time. Only the last
+ * {@code order.jfr.max-recordings} are kept: starting another closes the oldest finished one and deletes its file.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+	private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+	// A JFR configuration name (default, profile) or the path of a .jfc file
+	@Value("${order.jfr.settings:default}")
+	private String settings;
+
+	@Value("${order.jfr.directory:jfr}")
+	private String directory;
+
+	@Value("${order.jfr.max-duration:10m}")
+	private Duration maxDuration;
+
+	@Value("${order.jfr.max-size-mb:256}")
+	private long maxSizeMb;
+
+	@Value("${order.jfr.max-recordings:5}")
+	private int maxRecordings;
+
+	private final ConcurrentNavigableMap<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+
+	@PreDestroy
+	public void close() {
+		recordings.values().forEach(Recording::close);
+	}
+
+	@ReadOperation
+	public List<Map<String, Object>> recordings() {
+		List<Map<String, Object>> list = new ArrayList<>();
+		for (Recording recording : recordings.values()) {
+			list.add(describe(recording));
+		}
+		return list;
+	}
+
+	@WriteOperation
+	public synchronized Map<String, Object> start(@Nullable Duration duration) {
+		for (Recording recording : recordings.values()) {
+			if (recording.getState() == RecordingState.RUNNING) {
+				throw new InvalidEndpointRequestException("Recording " + recording.getId() + " is still running",
+						"A recording is already running");
+			}
+		}
+		Duration length = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+		if (length.isNegative() || length.isZero()) {
+			throw new InvalidEndpointRequestException("Duration must be positive", "Duration must be positive");
+		}
+		Recording recording;
+		try {
+			recording = new Recording(configuration());
+			Files.createDirectories(Path.of(directory));
+			recording.setDestination(Path.of(directory, "order-" + recording.getId() + ".jfr"));
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("Cannot start a JFR recording with settings " + settings, e);
+		}
+		recording.enable(OrderOperationEvent.class);
+		recording.enable(NotificationAttemptEvent.class);
+		recording.enable(JwtValidationEvent.class);
+		recording.setName("order-" + recording.getId());
+		recording.setToDisk(true);
+		recording.setDuration(length);
+		recording.setMaxSize(maxSizeMb * 1024 * 1024);
+		recording.start();
+		recordings.put(recording.getId(), recording);
+		evictOldest();
+		log.info("JFR recording {} started for {} with settings {}", recording.getId(), length, settings);
+		return describe(recording);
+	}
+
+	@DeleteOperation
+	public synchronized WebEndpointResponse<Map<String, Object>> stop(@Selector long id) {
+		Recording recording = recordings.get(id);
+		if (recording == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		if (recording.getState() == RecordingState.RUNNING) {
+			// Writes the destination file and closes the recording, as reaching the duration does
+			recording.stop();
+			log.info("JFR recording {} stopped, written to {}", id, recording.getDestination());
+		}
+		return new WebEndpointResponse<>(describe(recording));
+	}
+
+	@ReadOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> download(@Selector long id) {
+		Recording recording = recordings.get(id);
+		if (recording == null || recording.getState() == RecordingState.RUNNING
+				|| !Files.exists(recording.getDestination())) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		return new WebEndpointResponse<>(new FileSystemResource(recording.getDestination()));
+	}
+
+	// Recordings are listed oldest first, and the only running one is the newest
+	private void evictOldest() {
+		while (recordings.size() > Math.max(1, maxRecordings)) {
+			Recording oldest = recordings.pollFirstEntry().getValue();
+			oldest.close();
+			try {
+				Files.deleteIfExists(oldest.getDestination());
+				log.info("JFR recording {} evicted, deleted {}", oldest.getId(), oldest.getDestination());
+			} catch (IOException e) {
+				log.warn("Cannot delete JFR recording {}: {}", oldest.getDestination(), e.getMessage());
+			}
+		}
+	}
+
+	private Configuration configuration() throws IOException, ParseException {
+		return settings.endsWith(".jfc") ? Configuration.create(Path.of(settings)) : Configuration.getConfiguration(
+				settings);
+	}
+
+	private static Map<String, Object> describe(Recording recording) {
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("id", recording.getId());
+		description.put("name", recording.getName());
+		description.put("state", recording.getState().name());
+		description.put("startTime", String.valueOf(recording.getStartTime()));
+		description.put("duration", String.valueOf(recording.getDuration()));
+		description.put("file", String.valueOf(recording.getDestination()));
+		return description;
+	}
+}
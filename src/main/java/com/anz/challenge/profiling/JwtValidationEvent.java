@@ -0,0 +1,22 @@
+package com.anz.challenge.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Validation of a bearer token by {@code JwtFilter}. The token itself is never recorded.
+ */
+@Name("com.anz.challenge.JwtValidation")
+@Label("JWT Validation")
+@Category("Order Service")
+@Description("Signature and expiry check of a bearer token")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+	@Label("Valid")
+	boolean valid;
+}
@@ -0,0 +1,35 @@
+package com.anz.challenge.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One delivery attempt on one channel, from send until the channel's future completes. Sends are asynchronous, so
+ * the event's thread is the one that completed the attempt.
+ */
+@Name("com.anz.challenge.NotificationAttempt")
+@Label("Notification Attempt")
+@Category("Order Service")
+@Description("Delivery attempt of an order notification on one channel")
+@StackTrace(false)
+public class NotificationAttemptEvent extends Event {
+
+	@Label("Channel")
+	String channel;
+
+	@Label("Order Id")
+	long orderId;
+
+	@Label("Attempt")
+	int attempt;
+
+	@Label("Failed")
+	boolean failed;
+
+	@Label("Error")
+	String error;
+}
@@ -0,0 +1,32 @@
+package com.anz.challenge.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call into the order controller, services or repositories, timed from entry to return (including the commit for
+ * service calls).
+ */
+@Name("com.anz.challenge.OrderOperation")
+@Label("Order Operation")
+@Category("Order Service")
+@Description("Controller, service or repository call")
+@StackTrace(false)
+public class OrderOperationEvent extends Event {
+
+	@Label("Layer")
+	String layer;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Failed")
+	boolean failed;
+
+	@Label("Error")
+	String error;
+}
@@ -0,0 +1,44 @@
+package com.anz.challenge.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking cap on the number of requests in flight. Callers that fail {@link #tryAcquire()} are shed
+ * immediately instead of queueing.
+ */
+public class ConcurrencyLimiter {
+
+	private final int limit;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	public ConcurrencyLimiter(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Concurrency limit must be positive");
+		}
+		this.limit = limit;
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release() {
+		inFlight.decrementAndGet();
+	}
+
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	public int limit() {
+		return limit;
+	}
+}
@@ -0,0 +1,231 @@
+package com.anz.challenge.ratelimit;
+
+import com.anz.challenge.config.RateLimitConfig;
+import com.anz.challenge.config.TenantConfig;
+import com.anz.challenge.error.ApiError;
+import com.anz.challenge.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting, per-tenant bulkheads and global admission control for the order endpoints.
+ * Runs after {@code JwtFilter}, so the client key is the JWT subject it authenticated and the tenant is its claim.
+ * A tenant can hold at most {@code ratelimit.tenant.max-concurrent-requests} of the global slots (and therefore of
+ * the connection pool), so one tenant's bulk import cannot starve the others. Tenant bulkheads exist for the tenants
+ * of {@link TenantConfig} only; a request for any other tenant is rejected rather than given a new bulkhead.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+	enum Endpoint {
+		BULK,
+		STREAM,
+		DEFAULT
+	}
+
+	@Autowired
+	private RateLimitConfig config;
+
+	@Autowired
+	private TenantConfig tenantConfig;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final Map<Endpoint, ConcurrentHashMap<String, TokenBucket>> buckets = new EnumMap<>(Endpoint.class);
+	private final Map<Endpoint, Counter> rateRejections = new EnumMap<>(Endpoint.class);
+	private final Map<Endpoint, Counter> concurrencyRejections = new EnumMap<>(Endpoint.class);
+	private final Map<Endpoint, Counter> tenantRejections = new EnumMap<>(Endpoint.class);
+	private Map<String, ConcurrencyLimiter> tenantLimiters = Map.of();
+	private Map<String, ConcurrencyLimiter> tenantBulkLimiters = Map.of();
+	private ConcurrencyLimiter concurrencyLimiter;
+
+	@PostConstruct
+	public void init() {
+		concurrencyLimiter = new ConcurrencyLimiter(config.getMaxConcurrentRequests());
+		tenantLimiters = limiters(config.getTenantMaxConcurrentRequests());
+		tenantBulkLimiters = limiters(config.getTenantBulkMaxConcurrentRequests());
+		for (Endpoint endpoint : Endpoint.values()) {
+			buckets.put(endpoint, new ConcurrentHashMap<>());
+			rateRejections.put(endpoint, rejectionCounter(endpoint, "rate"));
+			concurrencyRejections.put(endpoint, rejectionCounter(endpoint, "concurrency"));
+			tenantRejections.put(endpoint, rejectionCounter(endpoint, "tenant"));
+		}
+		Gauge.builder("orders.ratelimit.inflight", concurrencyLimiter, ConcurrencyLimiter::inFlight)
+				.description("Order requests currently admitted")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !config.isEnabled() || classify(request) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		Endpoint endpoint = classify(request);
+		String client = clientKey(request);
+		long now = System.nanoTime();
+
+		long waitNanos = bucket(endpoint, client, now).tryAcquire(now);
+		if (waitNanos > 0) {
+			rateRejections.get(endpoint).increment();
+			long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+			log.warn("Rate limit exceeded: client={}, endpoint={}, retryAfter={}s", client, endpoint, retryAfter);
+			reject(request, response, retryAfter, "Rate limit exceeded for " + endpoint.name().toLowerCase() + " requests");
+			return;
+		}
+
+		String tenant = TenantContext.getTenant();
+		ConcurrencyLimiter tenantLimiter = tenantLimiters.get(tenant);
+		ConcurrencyLimiter tenantBulkLimiter = endpoint == Endpoint.BULK ? tenantBulkLimiters.get(tenant) : null;
+		if (tenantLimiter == null) {
+			// JwtFilter already refuses such tokens; this keeps the maps from growing with tenants nobody configured
+			log.warn("Unknown tenant, rejecting request: tenant={}, endpoint={}", tenant, endpoint);
+			write(request, response, HttpStatus.FORBIDDEN, "Unknown tenant " + tenant);
+			return;
+		}
+		if (!tryAcquire(tenantBulkLimiter)) {
+			rejectTenant(request, response, endpoint, tenant);
+			return;
+		}
+		try {
+			if (!tenantLimiter.tryAcquire()) {
+				rejectTenant(request, response, endpoint, tenant);
+				return;
+			}
+			try {
+				if (!concurrencyLimiter.tryAcquire()) {
+					concurrencyRejections.get(endpoint).increment();
+					log.warn("Server busy, shedding request: client={}, endpoint={}, inFlight={}", client, endpoint,
+							concurrencyLimiter.inFlight());
+					reject(request, response, config.getConcurrencyRetryAfterSeconds(), "Server busy, retry later");
+					return;
+				}
+				try {
+					filterChain.doFilter(request, response);
+				} finally {
+					concurrencyLimiter.release();
+				}
+			} finally {
+				tenantLimiter.release();
+			}
+		} finally {
+			if (tenantBulkLimiter != null) {
+				tenantBulkLimiter.release();
+			}
+		}
+	}
+
+	private static boolean tryAcquire(ConcurrencyLimiter limiter) {
+		return limiter == null || limiter.tryAcquire();
+	}
+
+	private void rejectTenant(HttpServletRequest request, HttpServletResponse response, Endpoint endpoint,
+			String tenant) throws IOException {
+		tenantRejections.get(endpoint).increment();
+		log.warn("Tenant at its concurrency limit, shedding request: tenant={}, endpoint={}", tenant, endpoint);
+		reject(request, response, config.getConcurrencyRetryAfterSeconds(),
+				"Too many concurrent requests for tenant " + tenant + ", retry later");
+	}
+
+	static Endpoint classify(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (!path.equals("/orders") && !path.startsWith("/orders/")) {
+			return null;
+		}
+		if ("POST".equals(request.getMethod()) && path.equals("/orders/bulkOrders")) {
+			return Endpoint.BULK;
+		}
+		if (path.startsWith("/orders/stream/")) {
+			return Endpoint.STREAM;
+		}
+		return Endpoint.DEFAULT;
+	}
+
+	private String clientKey(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+			return "sub:" + authentication.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	private Map<String, ConcurrencyLimiter> limiters(int limit) {
+		Map<String, ConcurrencyLimiter> limiters = new HashMap<>();
+		for (String tenant : tenantConfig.getTenants()) {
+			limiters.put(tenant, new ConcurrencyLimiter(limit));
+		}
+		return Map.copyOf(limiters);
+	}
+
+	private TokenBucket bucket(Endpoint endpoint, String client, long now) {
+		ConcurrentHashMap<String, TokenBucket> clients = buckets.get(endpoint);
+		TokenBucket bucket = clients.get(client);
+		if (bucket != null) {
+			return bucket;
+		}
+		if (clients.size() >= config.getMaxTrackedClients()) {
+			// A full bucket carries no state, so dropping it is equivalent to keeping it
+			clients.values().removeIf(b -> b.isIdle(now));
+		}
+		return clients.computeIfAbsent(client, k -> switch (endpoint) {
+			case BULK -> new TokenBucket(config.getBulkCapacity(), config.getBulkRefillPerSecond(), now);
+			case STREAM -> new TokenBucket(config.getStreamCapacity(), config.getStreamRefillPerSecond(), now);
+			case DEFAULT -> new TokenBucket(config.getDefaultCapacity(), config.getDefaultRefillPerSecond(), now);
+		});
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds,
+			String message) throws IOException {
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		write(request, response, HttpStatus.TOO_MANY_REQUESTS, message);
+	}
+
+	private void write(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+			throws IOException {
+		ApiError error = new ApiError(status.value(), status.getReasonPhrase(), message, request.getRequestURI());
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), error);
+	}
+
+	private Counter rejectionCounter(Endpoint endpoint, String reason) {
+		return Counter.builder("orders.ratelimit.rejected")
+				.description("Order requests rejected with 429")
+				.tag("endpoint", endpoint.name().toLowerCase())
+				.tag("reason", reason)
+				.register(meterRegistry);
+	}
+}
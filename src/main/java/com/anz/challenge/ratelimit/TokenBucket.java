@@ -0,0 +1,52 @@
+package com.anz.challenge.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as the generic cell rate algorithm: instead of a token count, the bucket keeps the
+ * "theoretical arrival time" of the next request in one {@link AtomicLong}, so an acquire is a single CAS.
+ * A bucket with {@code capacity} tokens refilled at {@code refillPerSecond} admits the same traffic.
+ */
+public class TokenBucket {
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final AtomicLong theoreticalArrival;
+
+	public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+		if (capacity <= 0 || refillPerSecond <= 0) {
+			throw new IllegalArgumentException("Capacity and refill rate must be positive");
+		}
+		this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+		this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Takes a token if one is available.
+	 *
+	 * @return 0 if the request is admitted, otherwise the nanoseconds until a token becomes available
+	 */
+	public long tryAcquire(long nowNanos) {
+		while (true) {
+			long tat = theoreticalArrival.get();
+			long start = Math.max(tat, nowNanos);
+			long waitNanos = start - nowNanos - burstToleranceNanos;
+			if (waitNanos > 0) {
+				return waitNanos;
+			}
+			if (theoreticalArrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * True once the bucket has refilled completely, i.e. it holds no state worth keeping.
+	 */
+	public boolean isIdle(long nowNanos) {
+		return theoreticalArrival.get() <= nowNanos;
+	}
+}
@@ -0,0 +1,28 @@
+package com.anz.challenge.repository;
+
+import com.anz.challenge.model.ArchivedOrder;
+import com.anz.challenge.model.Order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+	// JPQL so the @TenantId restriction applies, as in OrderRepository
+	@Override
+	@Query("select a from ArchivedOrder a where a.id = :id")
+	Optional<ArchivedOrder> findById(@Param("id") Long id);
+
+	@Query("select a.version from ArchivedOrder a where a.id = :id")
+	Optional<Long> findVersionById(@Param("id") Long id);
+
+	List<ArchivedOrder> findByStatusOrderById(Order.Status status);
+
+	long countByStatus(Order.Status status);
+}
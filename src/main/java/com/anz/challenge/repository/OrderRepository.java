@@ -5,10 +5,23 @@ import com.anz.challenge.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 	
+	// Queries carry the @TenantId restriction but Session.find() does not, so primary-key loads go through JPQL too
+	@Override
+	@Query("select o from Order o where o.id = :id")
+	Optional<Order> findById(@Param("id") Long id);
+
 	Page<Order> findByStatus(Order.Status status, Pageable pageable);
+
+	// Primary-key lookup of the version column only, used for conditional GETs
+	@Query("select o.version from Order o where o.id = :id")
+	Optional<Long> findVersionById(@Param("id") Long id);
 }
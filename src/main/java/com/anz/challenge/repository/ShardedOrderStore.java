@@ -0,0 +1,358 @@
+package com.anz.challenge.repository;
+
+import com.anz.challenge.model.Order;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hash-partitioned order storage over {@code order.sharding.shards} independent databases
+ * ({@code order.sharding.enabled=true}; the JPA repository is used otherwise).
+ *
+ * An order id encodes its shard: {@code id = localId * shards + shard}, so {@code id % shards} routes primary-key
+ * reads and updates to a single database. New orders are spread round-robin. Searches and the status stream fan out
+ * to every shard in parallel, each returning rows sorted by {@code (created_at, id)}, and the partial results are
+ * combined with a k-way merge. The shard count is fixed for the lifetime of the data.
+ */
+@Component
+@ConditionalOnProperty(name = "order.sharding.enabled", havingValue = "true")
+public class ShardedOrderStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ShardedOrderStore.class);
+
+	static final Comparator<Order> CREATED_ORDER = Comparator.comparing(Order::getCreatedAt)
+			.thenComparing(Order::getId);
+
+	// Ids are reserved from each shard's sequence in blocks, so a bulk insert costs one sequence call per block.
+	// Fixed, because the sequence increment is part of the stored schema
+	private static final int ID_BLOCK_SIZE = 100;
+
+	private static final String COLUMNS = "id, tenant_id, description, status, created_at, version";
+
+	private static final RowMapper<Order> ORDER_MAPPER = (rs, rowNum) -> {
+		Order order = new Order(rs.getLong("id"), rs.getString("description"),
+				Order.Status.valueOf(rs.getString("status")));
+		order.setTenant(rs.getString("tenant_id"));
+		order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+		order.setVersion(rs.getLong("version"));
+		return order;
+	};
+
+	@Value("${order.sharding.shards:4}")
+	private int shardCount;
+
+	// %d is replaced by the shard number
+	@Value("${order.sharding.url-template:jdbc:h2:mem:orders-shard-%d;DB_CLOSE_DELAY=-1}")
+	private String urlTemplate;
+
+	@Value("${order.sharding.username:sa}")
+	private String username;
+
+	@Value("${order.sharding.password:sa}")
+	private String password;
+
+	@Value("${order.sharding.pool-size:8}")
+	private int poolSize;
+
+	private final List<Shard> shards = new ArrayList<>();
+	private final AtomicInteger nextShard = new AtomicInteger();
+	private ExecutorService fanOut;
+
+	@PostConstruct
+	public void init() {
+		for (int i = 0; i < shardCount; i++) {
+			HikariConfig config = new HikariConfig();
+			config.setJdbcUrl(String.format(urlTemplate, i));
+			config.setUsername(username);
+			config.setPassword(password);
+			config.setMaximumPoolSize(poolSize);
+			config.setPoolName("order-shard-" + i);
+			HikariDataSource dataSource = new HikariDataSource(config);
+			Shard shard = new Shard(i, dataSource, new JdbcTemplate(dataSource));
+			shard.createSchema();
+			shards.add(shard);
+		}
+		// One thread per shard connection, so concurrent fan-outs wait on the shard pools rather than on this queue
+		AtomicInteger threads = new AtomicInteger();
+		fanOut = Executors.newFixedThreadPool(shardCount * poolSize, r -> {
+			Thread thread = new Thread(r, "order-shard-query-" + threads.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		log.info("Sharded order storage: {} shards ({})", shardCount, urlTemplate);
+	}
+
+	@PreDestroy
+	public void close() {
+		fanOut.shutdownNow();
+		shards.forEach(shard -> shard.dataSource.close());
+	}
+
+	public int shardOf(long id) {
+		return (int) Math.floorMod(id, (long) shardCount);
+	}
+
+	public Order insert(Order order, String tenant) {
+		return insertAll(List.of(order), tenant).get(0);
+	}
+
+	/**
+	 * Contiguous slices go to consecutive shards and are batch-inserted in parallel; the result keeps the input order.
+	 * Each slice is one transaction on its shard. There is no transaction across shards: when a slice fails, the
+	 * slices already committed are deleted again before the failure is rethrown, so the caller sees all or nothing
+	 * unless that cleanup fails too (logged with the ids left behind).
+	 */
+	public List<Order> insertAll(List<Order> orders, String tenant) {
+		if (orders.isEmpty()) {
+			return orders;
+		}
+		int slices = Math.min(orders.size(), shardCount);
+		int first = Math.floorMod(nextShard.getAndAdd(slices), shardCount);
+		if (slices == 1) {
+			shards.get(first).insert(orders, tenant);
+			return orders;
+		}
+		int sliceSize = (orders.size() + slices - 1) / slices;
+		List<List<Order>> parts = new ArrayList<>();
+		List<Shard> targets = new ArrayList<>();
+		List<CompletableFuture<Void>> inserts = new ArrayList<>();
+		for (int s = 0; s * sliceSize < orders.size(); s++) {
+			List<Order> slice = orders.subList(s * sliceSize, Math.min(orders.size(), (s + 1) * sliceSize));
+			Shard shard = shards.get((first + s) % shardCount);
+			parts.add(slice);
+			targets.add(shard);
+			inserts.add(CompletableFuture.runAsync(() -> shard.insert(slice, tenant), fanOut));
+		}
+		// Wait for every slice, not just the first failure, so the cleanup knows which ones committed
+		List<Throwable> errors = inserts.stream().map(insert -> insert.handle((v, e) -> e).join()).toList();
+		Throwable failure = errors.stream().filter(Objects::nonNull).findFirst().orElse(null);
+		if (failure == null) {
+			return orders;
+		}
+		for (int s = 0; s < errors.size(); s++) {
+			if (errors.get(s) == null) {
+				targets.get(s).delete(parts.get(s));
+			}
+		}
+		Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+				? failure.getCause() : failure;
+		throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+	}
+
+	public Optional<Order> findById(long id, String tenant) {
+		Shard shard = shards.get(shardOf(id));
+		return shard.jdbc.query("select " + COLUMNS + " from orders where id = ? and tenant_id = ?", ORDER_MAPPER,
+				id, tenant).stream().findFirst();
+	}
+
+	public Optional<Long> findVersionById(long id, String tenant) {
+		Shard shard = shards.get(shardOf(id));
+		return shard.jdbc.queryForList("select version from orders where id = ? and tenant_id = ?", Long.class,
+				id, tenant).stream().findFirst();
+	}
+
+	// Compare-and-set on the version read by the caller, like the JPA @Version check
+	public Order updateStatus(Order order, Order.Status status, String tenant) {
+		int updated = shards.get(shardOf(order.getId())).jdbc.update(
+				"update orders set status = ?, version = version + 1 where id = ? and tenant_id = ? and version = ?",
+				status.name(), order.getId(), tenant, order.getVersion());
+		if (updated == 0) {
+			throw new OptimisticLockingFailureException("Order " + order.getId() + " was updated concurrently");
+		}
+		order.setStatus(status);
+		order.setVersion(order.getVersion() + 1);
+		return order;
+	}
+
+	/**
+	 * One page across all shards. Every shard returns its first {@code offset + size} rows in merge order (so deep
+	 * pages cost more, as with any scatter-gather), and counts run alongside.
+	 */
+	public Page<Order> search(Order.Status status, Pageable pageable, String tenant) {
+		long offset = pageable.getOffset();
+		int size = pageable.getPageSize();
+		String where = status != null ? " where tenant_id = ? and status = ?" : " where tenant_id = ?";
+		Object[] args = status != null ? new Object[] { tenant, status.name() } : new Object[] { tenant };
+
+		List<CompletableFuture<ShardPage>> pages = fanOut(shard -> new ShardPage(
+				shard.jdbc.query("select " + COLUMNS + " from orders" + where
+						+ " order by created_at, id limit " + (offset + size), ORDER_MAPPER, args),
+				shard.jdbc.queryForObject("select count(*) from orders" + where, Long.class, args)));
+
+		List<List<Order>> sorted = new ArrayList<>();
+		long total = 0;
+		for (ShardPage page : join(pages)) {
+			sorted.add(page.rows());
+			total += page.count();
+		}
+		return new PageImpl<>(merge(sorted, CREATED_ORDER, offset, size), pageable, total);
+	}
+
+	public List<Order> findByStatus(Order.Status status, String tenant) {
+		List<CompletableFuture<List<Order>>> results = fanOut(shard -> shard.jdbc.query("select " + COLUMNS
+				+ " from orders where tenant_id = ? and status = ? order by created_at, id", ORDER_MAPPER, tenant,
+				status.name()));
+		return merge(join(results), CREATED_ORDER, 0, Integer.MAX_VALUE);
+	}
+
+	// Streams every order of every tenant, one shard at a time (used to rebuild derived indexes)
+	public void scanAll(Consumer<Order> consumer) {
+		queryEachShard("select " + COLUMNS + " from orders", rs -> consumer.accept(ORDER_MAPPER.mapRow(rs, 0)));
+	}
+
+	// Runs a query against each shard in turn, streaming rows to the handler without collecting them
+	public void queryEachShard(String sql, RowCallbackHandler handler, Object... args) {
+		for (Shard shard : shards) {
+			shard.jdbc.query(sql, handler, args);
+		}
+	}
+
+	/**
+	 * K-way merge of lists that are each sorted by {@code comparator}: skips the first {@code skip} elements of the
+	 * merged sequence and returns up to {@code limit} of the rest, touching only the heads of the inputs.
+	 */
+	static <T> List<T> merge(List<List<T>> sorted, Comparator<T> comparator, long skip, int limit) {
+		PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.head(), b.head()));
+		for (List<T> list : sorted) {
+			if (!list.isEmpty()) {
+				heads.add(new Cursor<>(list, 0));
+			}
+		}
+		List<T> merged = new ArrayList<>(Math.min(limit, sorted.stream().mapToInt(List::size).sum()));
+		long position = 0;
+		while (!heads.isEmpty() && merged.size() < limit) {
+			Cursor<T> cursor = heads.poll();
+			if (position++ >= skip) {
+				merged.add(cursor.head());
+			}
+			if (cursor.index() + 1 < cursor.list().size()) {
+				heads.add(new Cursor<>(cursor.list(), cursor.index() + 1));
+			}
+		}
+		return merged;
+	}
+
+	private <R> List<CompletableFuture<R>> fanOut(Function<Shard, R> query) {
+		List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+		for (Shard shard : shards) {
+			futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), fanOut));
+		}
+		return futures;
+	}
+
+	private static <R> List<R> join(List<CompletableFuture<R>> futures) {
+		try {
+			return futures.stream().map(CompletableFuture::join).toList();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private final class Shard {
+
+		private final int number;
+		private final HikariDataSource dataSource;
+		private final JdbcTemplate jdbc;
+		private final TransactionTemplate transactions;
+
+		// Next unreserved local id and the end of the reserved block
+		private long nextLocalId;
+		private long blockEnd;
+
+		Shard(int number, HikariDataSource dataSource, JdbcTemplate jdbc) {
+			this.number = number;
+			this.dataSource = dataSource;
+			this.jdbc = jdbc;
+			this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		}
+
+		void createSchema() {
+			jdbc.execute("create table if not exists orders (id bigint primary key, tenant_id varchar(64) not null, "
+					+ "description varchar(255), status varchar(16) not null, created_at timestamp not null, "
+					+ "version bigint not null)");
+			jdbc.execute("create index if not exists idx_orders_tenant_status_created_at "
+					+ "on orders (tenant_id, status, created_at, id)");
+			jdbc.execute("create index if not exists idx_orders_tenant_created_at on orders (tenant_id, created_at, id)");
+			jdbc.execute("create sequence if not exists order_local_id start with 1 increment by " + ID_BLOCK_SIZE);
+		}
+
+		void insert(List<Order> orders, String tenant) {
+			LocalDateTime now = LocalDateTime.now();
+			List<Object[]> rows = new ArrayList<>(orders.size());
+			for (Order order : orders) {
+				order.setId(nextLocalId() * shardCount + number);
+				order.setTenant(tenant);
+				order.setVersion(0L);
+				if (order.getCreatedAt() == null) {
+					order.setCreatedAt(now);
+				}
+				rows.add(new Object[] { order.getId(), tenant, order.getDescription(), order.getStatus().name(),
+						Timestamp.valueOf(order.getCreatedAt()), 0L });
+			}
+			transactions.executeWithoutResult(
+					status -> jdbc.batchUpdate("insert into orders (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)", rows));
+		}
+
+		// Undoes a committed insert after another slice of the same bulk insert failed
+		void delete(List<Order> orders) {
+			List<Object[]> ids = orders.stream().map(order -> new Object[] { order.getId() }).toList();
+			try {
+				jdbc.batchUpdate("delete from orders where id = ?", ids);
+			} catch (RuntimeException e) {
+				log.error("Failed to remove {} orders from shard {} after a failed bulk insert, ids {}: {}",
+						orders.size(), number, orders.stream().map(Order::getId).toList(), e.getMessage());
+			}
+		}
+
+		private synchronized long nextLocalId() {
+			if (nextLocalId == blockEnd) {
+				nextLocalId = jdbc.queryForObject("select next value for order_local_id", Long.class);
+				blockEnd = nextLocalId + ID_BLOCK_SIZE;
+			}
+			return nextLocalId++;
+		}
+	}
+
+	private record ShardPage(List<Order> rows, long count) {
+	}
+
+	private record Cursor<T>(List<T> list, int index) {
+		T head() {
+			return list.get(index);
+		}
+	}
+}
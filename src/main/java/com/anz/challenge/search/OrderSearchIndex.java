@@ -0,0 +1,335 @@
+package com.anz.challenge.search;
+
+import com.anz.challenge.dto.OrderSummary;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ShardedOrderStore;
+import com.anz.challenge.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded Lucene index over order descriptions, so text lookups are an inverted-index probe instead of a
+ * {@code LIKE '%...%'} table scan.
+ *
+ * {@code OrderService} upserts orders after each committed write; new documents become searchable at the next
+ * refresh ({@code order.search.refresh-ms}), and an on-disk index is committed every {@code order.search.commit-ms}.
+ * The index is rebuilt from the database on startup, covering the hot table, the archive or the shards; writes that
+ * arrive meanwhile are never overwritten by an older row from the scan. Each word of a query must match (a trailing {@code *} makes it a prefix);
+ * tenant, status and {@code createdAt} are filters and results are ranked by BM25 relevance.
+ */
+@Component
+public class OrderSearchIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderSearchIndex.class);
+
+	private static final String ID = "id";
+	private static final String TENANT = "tenant";
+	private static final String DESCRIPTION = "description";
+	private static final String STATUS = "status";
+	private static final String CREATED_AT = "createdAt";
+
+	private static final String SCAN = "select id, tenant_id, description, status, created_at, version from orders "
+			+ "union all select id, tenant_id, description, status, created_at, version from orders_archive";
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
+
+	// Blank = in memory
+	@Value("${order.search.directory:}")
+	private String directoryPath;
+
+	@Value("${order.search.refresh-ms:100}")
+	private long refreshMs;
+
+	@Value("${order.search.rebuild-on-startup:true}")
+	private boolean rebuildOnStartup;
+
+	// Only used with a directory; an in-memory index has nothing to make durable
+	@Value("${order.search.commit-ms:10000}")
+	private long commitMs;
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private Directory directory;
+	private IndexWriter writer;
+	private SearcherManager searchers;
+	private ScheduledExecutorService refresher;
+
+	// While a rebuild runs: the version of every order written by index(), so the scan cannot overwrite it with an
+	// older row it read before that write committed. Null otherwise
+	private volatile ConcurrentHashMap<Long, Long> writtenDuringRebuild;
+
+	@PostConstruct
+	public void init() throws IOException {
+		directory = directoryPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directoryPath));
+		writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+		searchers = new SearcherManager(writer, null);
+		refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "order-search-refresher");
+			t.setDaemon(true);
+			return t;
+		});
+		refresher.scheduleWithFixedDelay(this::refreshSafely, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+		if (!directoryPath.isBlank()) {
+			refresher.scheduleWithFixedDelay(this::commitSafely, commitMs, commitMs, TimeUnit.MILLISECONDS);
+		}
+		log.info("Order search index in {} (refresh every {} ms)",
+				directoryPath.isBlank() ? "memory" : directoryPath, refreshMs);
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		refresher.shutdownNow();
+		searchers.close();
+		writer.close();
+		directory.close();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		if (rebuildOnStartup) {
+			rebuild();
+		}
+	}
+
+	public void index(Collection<Order> orders) {
+		for (Order order : orders) {
+			ConcurrentHashMap<Long, Long> written = writtenDuringRebuild;
+			if (written == null) {
+				write(order);
+			} else {
+				// An order without a version is treated as newer than anything the scan can read
+				long version = order.getVersion() != null ? order.getVersion() : Long.MAX_VALUE;
+				written.compute(order.getId(), (id, previous) -> {
+					write(order);
+					return previous != null ? Math.max(previous, version) : version;
+				});
+			}
+		}
+	}
+
+	// Skips the row when index() has written the same or a newer version during the rebuild
+	private void indexScanned(Order order) {
+		ConcurrentHashMap<Long, Long> written = writtenDuringRebuild;
+		written.compute(order.getId(), (id, version) -> {
+			if (version == null || version < order.getVersion()) {
+				write(order);
+			}
+			return version;
+		});
+	}
+
+	private void write(Order order) {
+		try {
+			writer.updateDocument(new Term(ID, order.getId().toString()), document(order));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Re-indexes every order in the database. Documents are upserted by id, so searches keep working meanwhile, and
+	 * orders written by {@link #index} during the scan keep their newer document. Returns the number of orders read.
+	 */
+	public synchronized long rebuild() {
+		long start = System.nanoTime();
+		AtomicLong count = new AtomicLong();
+		writtenDuringRebuild = new ConcurrentHashMap<>();
+		try {
+			if (shardedStore != null) {
+				shardedStore.scanAll(order -> {
+					indexScanned(order);
+					count.incrementAndGet();
+				});
+			} else {
+				jdbc.query(SCAN, rs -> {
+					Order order = new Order(rs.getLong("id"), rs.getString("description"),
+							Order.Status.valueOf(rs.getString("status")));
+					order.setTenant(rs.getString("tenant_id"));
+					order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+					order.setVersion(rs.getLong("version"));
+					indexScanned(order);
+					count.incrementAndGet();
+				});
+			}
+		} finally {
+			writtenDuringRebuild = null;
+		}
+		try {
+			writer.commit();
+			searchers.maybeRefreshBlocking();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("Order search index rebuilt: {} orders in {} ms", count.get(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return count.get();
+	}
+
+	// Makes every write so far searchable; the refresher does this periodically
+	public void refresh() {
+		try {
+			searchers.maybeRefreshBlocking();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public Page<OrderSummary> search(String text, Order.Status status, LocalDateTime from, LocalDateTime to,
+			Pageable pageable) {
+		Query query = query(text, status, from, to);
+		try {
+			IndexSearcher searcher = searchers.acquire();
+			try {
+				int total = searcher.count(query);
+				int offset = Math.toIntExact(pageable.getOffset());
+				List<OrderSummary> content = new ArrayList<>(pageable.getPageSize());
+				if (offset < total) {
+					TopDocs top = searcher.search(query, offset + pageable.getPageSize());
+					StoredFields stored = searcher.storedFields();
+					for (int i = offset; i < top.scoreDocs.length; i++) {
+						ScoreDoc hit = top.scoreDocs[i];
+						Document document = stored.document(hit.doc);
+						content.add(new OrderSummary(Long.valueOf(document.get(ID)), document.get(DESCRIPTION),
+								document.get(STATUS)));
+					}
+				}
+				return new PageImpl<>(content, pageable, total);
+			} finally {
+				searchers.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Query query(String text, Order.Status status, LocalDateTime from, LocalDateTime to) {
+		BooleanQuery.Builder query = new BooleanQuery.Builder();
+		boolean hasTerms = false;
+		for (String word : text.trim().split("\\s+")) {
+			boolean prefix = word.endsWith("*");
+			List<String> tokens = analyze(prefix ? word.substring(0, word.length() - 1) : word);
+			for (int i = 0; i < tokens.size(); i++) {
+				Term term = new Term(DESCRIPTION, tokens.get(i));
+				query.add(prefix && i == tokens.size() - 1 ? new PrefixQuery(term) : new TermQuery(term), Occur.MUST);
+				hasTerms = true;
+			}
+		}
+		if (!hasTerms) {
+			throw new IllegalArgumentException("Search text must contain at least one word");
+		}
+		query.add(new TermQuery(new Term(TENANT, TenantContext.getTenant())), Occur.FILTER);
+		if (status != null) {
+			query.add(new TermQuery(new Term(STATUS, status.name())), Occur.FILTER);
+		}
+		if (from != null || to != null) {
+			query.add(LongPoint.newRangeQuery(CREATED_AT, from != null ? millis(from) : Long.MIN_VALUE,
+					to != null ? millis(to) : Long.MAX_VALUE), Occur.FILTER);
+		}
+		return query.build();
+	}
+
+	// Same analyzer as indexing, so case and punctuation match
+	private List<String> analyze(String text) {
+		List<String> tokens = new ArrayList<>();
+		try (TokenStream stream = analyzer.tokenStream(DESCRIPTION, text)) {
+			CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+			stream.reset();
+			while (stream.incrementToken()) {
+				tokens.add(term.toString());
+			}
+			stream.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return tokens;
+	}
+
+	private static Document document(Order order) {
+		Document document = new Document();
+		document.add(new StringField(ID, order.getId().toString(), Field.Store.YES));
+		document.add(new StringField(TENANT, order.getTenant() != null ? order.getTenant() : TenantContext.getTenant(),
+				Field.Store.NO));
+		document.add(new TextField(DESCRIPTION, order.getDescription() != null ? order.getDescription() : "",
+				Field.Store.YES));
+		document.add(new StringField(STATUS, order.getStatus().name(), Field.Store.YES));
+		if (order.getCreatedAt() != null) {
+			document.add(new LongPoint(CREATED_AT, millis(order.getCreatedAt())));
+		}
+		return document;
+	}
+
+	private static long millis(LocalDateTime time) {
+		return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	private void commitSafely() {
+		try {
+			if (writer.hasUncommittedChanges()) {
+				writer.commit();
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Order search commit failed: {}", e.getMessage());
+		}
+	}
+
+	private void refreshSafely() {
+		try {
+			searchers.maybeRefresh();
+		} catch (IOException | RuntimeException e) {
+			log.warn("Order search refresh failed: {}", e.getMessage());
+		}
+	}
+}
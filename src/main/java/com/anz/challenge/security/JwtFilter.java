@@ -3,11 +3,18 @@ package com.anz.challenge.security;
 import java.io.IOException;
 import java.util.List;
 
+import com.anz.challenge.config.TenantConfig;
+import com.anz.challenge.tenant.TenantContext;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +27,12 @@ public class JwtFilter extends OncePerRequestFilter {
 	@Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TenantConfig tenantConfig;
+
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -29,22 +42,40 @@ public class JwtFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
+            // Only the token check is in this span; the rest of the chain is timed by the request span
+            Observation authentication = Observation.createNotStarted("order.jwt.authenticate",
+                            observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP)
+                    .contextualName("JwtFilter.authenticate")
+                    .lowCardinalityKeyValue("layer", "filter");
+            authentication.observe(() -> authentication.lowCardinalityKeyValue("valid",
+                    String.valueOf(authenticate(authHeader.substring(7)))));
+        }
 
-            if (jwtUtil.isTokenValid(token)) {
-                String username = jwtUtil.extractUsername(token);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                username,
-                                null,
-                                List.of()
-                        );
+    private boolean authenticate(String token) {
+        // Parsed once per request; a token for a tenant no longer configured is refused, like an expired one
+        Claims claims = jwtUtil.validClaims(token).orElse(null);
+        String tenant = claims != null ? jwtUtil.tenantOf(claims) : null;
+        boolean valid = tenant != null && tenantConfig.isKnown(tenant);
+        if (valid) {
+            String username = claims.getSubject();
+            TenantContext.setTenant(tenant);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
-        }
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(
+                            username,
+                            null,
+                            List.of()
+                    );
 
-        filterChain.doFilter(request, response);
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        return valid;
     }
 }
@@ -1,9 +1,12 @@
 package com.anz.challenge.security;
 
 import java.util.Date;
+import java.util.Optional;
 
 import org.springframework.stereotype.Component;
 
+import com.anz.challenge.tenant.TenantContext;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -16,9 +19,16 @@ public class JwtUtil {
     private final String secret = "very-secret-key-change-me-very-secret-key";
     private final long expirationMs = 15 * 60 * 1000; // 15 minutes
 
+    public static final String TENANT_CLAIM = "tenant";
+
     public String generateToken(String username) {
+        return generateToken(username, TenantContext.DEFAULT_TENANT);
+    }
+
+    public String generateToken(String username, String tenant) {
         return Jwts.builder()
                 .setSubject(username)
+                .claim(TENANT_CLAIM, tenant)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
                 .signWith(
@@ -32,6 +42,25 @@ public class JwtUtil {
         return parseClaims(token).getSubject();
     }
 
+    // Tokens issued before tenancy carry no claim and belong to the default tenant
+    public String extractTenant(String token) {
+        return tenantOf(parseClaims(token));
+    }
+
+    // Verifies and parses the token once; empty when it is invalid or expired
+    public Optional<Claims> validClaims(String token) {
+        try {
+            return Optional.of(parseClaims(token));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public String tenantOf(Claims claims) {
+        String tenant = claims.get(TENANT_CLAIM, String.class);
+        return tenant != null ? tenant : TenantContext.DEFAULT_TENANT;
+    }
+
     public boolean isTokenValid(String token) {
         try {
             parseClaims(token);
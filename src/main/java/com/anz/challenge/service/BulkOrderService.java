@@ -0,0 +1,128 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.dto.BulkOrderViolation;
+import com.anz.challenge.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bulk order pipeline: validates and maps the payload in parallel chunks, collects violations per index instead of
+ * failing the whole request, and persists the valid orders in one transaction.
+ */
+@Service
+public class BulkOrderService {
+
+	private static final Logger log = LoggerFactory.getLogger(BulkOrderService.class);
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private Validator validator;
+
+	@Value("${order.bulk.chunk-size:256}")
+	private int chunkSize;
+
+	// 0 = one worker per available processor
+	@Value("${order.bulk.parallelism:0}")
+	private int parallelism;
+
+	private ForkJoinPool pool;
+
+	@PostConstruct
+	public void init() {
+		int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		pool = new ForkJoinPool(workers);
+		log.info("Bulk order pipeline: chunkSize={}, parallelism={}", chunkSize, workers);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	public BulkOrderReport createOrders(List<Order> orders) {
+		List<ChunkResult> chunks = validateAndMap(orders);
+
+		List<Order> valid = new ArrayList<>(orders.size());
+		List<BulkOrderViolation> violations = new ArrayList<>();
+		int rejected = 0;
+		for (ChunkResult chunk : chunks) {
+			valid.addAll(chunk.valid());
+			violations.addAll(chunk.violations());
+			rejected += chunk.rejected();
+		}
+
+		List<Order> created = valid.isEmpty() ? List.of() : orderService.createBulkOrders(valid);
+		log.info("Bulk pipeline processed {} orders: {} created, {} rejected", orders.size(), created.size(), rejected);
+		return new BulkOrderReport(orders.size(), created.size(), rejected, created, violations);
+	}
+
+	private List<ChunkResult> validateAndMap(List<Order> orders) {
+		// Small payloads are cheaper to handle on the request thread
+		if (orders.size() <= chunkSize) {
+			return List.of(processChunk(orders, 0, orders.size()));
+		}
+		List<CompletableFuture<ChunkResult>> futures = new ArrayList<>();
+		for (int start = 0; start < orders.size(); start += chunkSize) {
+			int from = start;
+			int to = Math.min(start + chunkSize, orders.size());
+			futures.add(CompletableFuture.supplyAsync(() -> processChunk(orders, from, to), pool));
+		}
+		// Futures are joined in submission order, so results keep the payload order
+		return futures.stream().map(CompletableFuture::join).toList();
+	}
+
+	private ChunkResult processChunk(List<Order> orders, int from, int to) {
+		List<Order> valid = new ArrayList<>(to - from);
+		List<BulkOrderViolation> violations = new ArrayList<>();
+		int rejected = 0;
+		for (int i = from; i < to; i++) {
+			Order order = orders.get(i);
+			if (order == null) {
+				violations.add(new BulkOrderViolation(i, "order", "Order must not be null"));
+				rejected++;
+				continue;
+			}
+			Order mapped = map(order);
+			List<ConstraintViolation<Order>> errors = validator.validate(mapped).stream()
+					.sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+					.toList();
+			if (errors.isEmpty()) {
+				valid.add(mapped);
+			} else {
+				for (ConstraintViolation<Order> error : errors) {
+					violations.add(new BulkOrderViolation(i, error.getPropertyPath().toString(), error.getMessage()));
+				}
+				rejected++;
+			}
+		}
+		return new ChunkResult(valid, violations, rejected);
+	}
+
+	// New orders only: client-supplied ids or versions would turn the insert into an update of an existing row
+	private Order map(Order source) {
+		Order order = new Order();
+		order.setDescription(source.getDescription());
+		order.setStatus(source.getStatus());
+		order.setCreatedAt(source.getCreatedAt());
+		return order;
+	}
+
+	private record ChunkResult(List<Order> valid, List<BulkOrderViolation> violations, int rejected) {
+	}
+}
@@ -0,0 +1,315 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.config.NotificationConfig;
+import com.anz.challenge.config.NotificationSettings;
+import com.anz.challenge.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules order notifications through priority lanes keyed by status and source.
+ *
+ * Each lane has its own bounded queue. A single dispatcher thread picks the next lane by smooth weighted
+ * round-robin over the non-empty lanes and hands the notification to {@link NotificationService}, keeping at most
+ * {@code notification.dispatch.max-in-flight} notifications outstanding. Both the weights and the slot count are
+ * read from {@link NotificationSettings}, so a reload applies from the next dispatch. Because the backlog stays in the lane
+ * queues instead of the channels, an interactive cancellation waits for at most a few dispatch slots even while a
+ * mass import is being notified.
+ */
+@Component
+public class NotificationDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+	private static final long RESIZE_CHECK_MS = 100;
+
+	public enum Source {
+		INTERACTIVE,
+		BULK
+	}
+
+	public enum Lane {
+		CANCELLATION,
+		INTERACTIVE,
+		BULK;
+
+		public static Lane of(Order.Status status, Source source) {
+			if (source == Source.BULK) {
+				return BULK;
+			}
+			return status == Order.Status.CANCELLED ? CANCELLATION : INTERACTIVE;
+		}
+	}
+
+	@Autowired
+	private NotificationService notificationService;
+
+	// Slots and lane weights come from the reloadable settings snapshot
+	@Autowired
+	private NotificationConfig config;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Autowired(required = false)
+	private ObservationRegistry observationRegistry;
+
+	@Value("${notification.dispatch.enqueue-timeout-ms:5000}")
+	private long enqueueTimeoutMs;
+
+	@Value("${notification.lanes.cancellation.capacity:10000}")
+	private int cancellationCapacity;
+
+	@Value("${notification.lanes.interactive.capacity:10000}")
+	private int interactiveCapacity;
+
+	@Value("${notification.lanes.bulk.capacity:100000}")
+	private int bulkCapacity;
+
+	private final Map<Lane, BlockingQueue<Pending>> queues = new EnumMap<>(Lane.class);
+	private final Map<Lane, Timer> waitTimers = new EnumMap<>(Lane.class);
+	private final Map<Lane, Counter> rejections = new EnumMap<>(Lane.class);
+
+	// Only touched by the dispatcher thread
+	private final Map<Lane, Integer> credits = new EnumMap<>(Lane.class);
+
+	private final Semaphore queued = new Semaphore(0);
+	private Slots inFlight;
+	// Only touched by the dispatcher thread once started
+	private int maxInFlight;
+	private Thread dispatcher;
+
+	@PostConstruct
+	public void init() {
+		NotificationSettings settings = config.settings();
+		maxInFlight = settings.dispatchMaxInFlight();
+		inFlight = new Slots(maxInFlight);
+		configure(Lane.CANCELLATION, cancellationCapacity);
+		configure(Lane.INTERACTIVE, interactiveCapacity);
+		configure(Lane.BULK, bulkCapacity);
+
+		dispatcher = new Thread(this::run, "notification-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+		log.info("Notification lanes: weights={}/{}/{}, maxInFlight={}", settings.cancellationWeight(),
+				settings.interactiveWeight(), settings.bulkWeight(), maxInFlight);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (dispatcher != null) {
+			dispatcher.interrupt();
+		}
+	}
+
+	/**
+	 * Queues a notification per order. A full lane pushes back on the producer (e.g. a bulk import) rather than
+	 * growing without bound, but for at most {@code notification.dispatch.enqueue-timeout-ms} per call, not per
+	 * order: callers run in after-commit callbacks that still hold a request thread. Whatever does not fit by then is
+	 * dropped, counted per lane and logged once.
+	 */
+	public void submit(List<Order> orders, Source source) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+		// The caller's span travels with the notification, so delivery is traced as part of the same request
+		Observation parent = registry().getCurrentObservation();
+		int dropped = 0;
+		for (Order order : orders) {
+			if (!enqueue(order.getId(), order.getStatus(), source, deadline, parent)) {
+				dropped++;
+			}
+		}
+		if (dropped > 0) {
+			log.error("Notification lanes full, dropped {} of {} {} notifications", dropped, orders.size(),
+					source.name().toLowerCase());
+		}
+	}
+
+	public void submit(Long orderId, Order.Status status, Source source) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+		if (!enqueue(orderId, status, source, deadline, registry().getCurrentObservation())) {
+			log.error("Notification lane {} is full, dropping notification for order {} with status {}",
+					Lane.of(status, source), orderId, status);
+		}
+	}
+
+	private boolean enqueue(Long orderId, Order.Status status, Source source, long deadline, Observation parent) {
+		Lane lane = Lane.of(status, source);
+		Pending pending = new Pending(orderId, status.name(), System.nanoTime(), lane, parent);
+		boolean accepted;
+		try {
+			// Once the call's wait is used up this is a plain non-blocking offer
+			accepted = queues.get(lane).offer(pending, Math.max(0, deadline - System.nanoTime()),
+					TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			accepted = false;
+		}
+		if (!accepted) {
+			count(rejections.get(lane));
+			return false;
+		}
+		queued.release();
+		return true;
+	}
+
+	public int depth(Lane lane) {
+		return queues.get(lane).size();
+	}
+
+	private void configure(Lane lane, int capacity) {
+		queues.put(lane, new LinkedBlockingQueue<>(capacity));
+		credits.put(lane, 0);
+		if (meterRegistry != null) {
+			String tag = lane.name().toLowerCase();
+			Gauge.builder("orders.notification.lane.depth", this, d -> d.depth(lane))
+					.description("Notifications waiting in the lane")
+					.tag("lane", tag)
+					.register(meterRegistry);
+			waitTimers.put(lane, Timer.builder("orders.notification.lane.wait")
+					.description("Time from enqueue to dispatch")
+					.tag("lane", tag)
+					.publishPercentiles(0.5, 0.99)
+					.register(meterRegistry));
+			rejections.put(lane, Counter.builder("orders.notification.lane.rejected")
+					.description("Notifications dropped because the lane was full")
+					.tag("lane", tag)
+					.register(meterRegistry));
+		}
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				queued.acquire();
+				// Waits in short steps, so a reloaded max-in-flight applies even while every slot is taken
+				do {
+					resize();
+				} while (!inFlight.tryAcquire(RESIZE_CHECK_MS, TimeUnit.MILLISECONDS));
+				Lane lane = nextLane();
+				Pending pending = queues.get(lane).poll();
+				Timer timer = waitTimers.get(lane);
+				if (timer != null) {
+					timer.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+				}
+				dispatch(pending);
+			}
+		} catch (InterruptedException e) {
+			log.info("Notification dispatcher stopped");
+		}
+	}
+
+	private void dispatch(Pending pending) {
+		Observation delivery = Observation.createNotStarted("order.notification", registry())
+				.contextualName("NotificationDispatcher.dispatch")
+				.parentObservation(pending.parent())
+				.lowCardinalityKeyValue("layer", "notification")
+				.lowCardinalityKeyValue("lane", pending.lane().name().toLowerCase())
+				.highCardinalityKeyValue("order.id", String.valueOf(pending.orderId()))
+				.start();
+		try (Observation.Scope scope = delivery.openScope()) {
+			notificationService.notifyStatusChangeAsync(pending.orderId(), pending.status())
+					.whenComplete((ignored, e) -> {
+						inFlight.release();
+						if (e != null) {
+							delivery.error(e);
+							log.error("Notification failed for order {}: {}", pending.orderId(), e.getMessage());
+						}
+						delivery.stop();
+					});
+		} catch (RuntimeException e) {
+			inFlight.release();
+			delivery.error(e);
+			delivery.stop();
+			log.error("Notification failed for order {}: {}", pending.orderId(), e.getMessage());
+		}
+	}
+
+	// Permits go negative when the limit drops below the notifications in flight; completions pay the deficit back
+	private void resize() {
+		int target = config.settings().dispatchMaxInFlight();
+		if (target == maxInFlight) {
+			return;
+		}
+		if (target > maxInFlight) {
+			inFlight.release(target - maxInFlight);
+		} else {
+			inFlight.reducePermits(maxInFlight - target);
+		}
+		log.info("Notification dispatch slots resized from {} to {}", maxInFlight, target);
+		maxInFlight = target;
+	}
+
+	private ObservationRegistry registry() {
+		return observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
+	}
+
+	// Smooth weighted round-robin: each non-empty lane earns its weight, the richest lane is served and pays the total
+	private Lane nextLane() {
+		NotificationSettings settings = config.settings();
+		Lane best = null;
+		int total = 0;
+		for (Lane lane : Lane.values()) {
+			if (queues.get(lane).isEmpty()) {
+				credits.put(lane, 0);
+				continue;
+			}
+			int weight = weight(settings, lane);
+			credits.put(lane, credits.get(lane) + weight);
+			total += weight;
+			if (best == null || credits.get(lane) > credits.get(best)) {
+				best = lane;
+			}
+		}
+		credits.put(best, credits.get(best) - total);
+		return best;
+	}
+
+	private static int weight(NotificationSettings settings, Lane lane) {
+		return switch (lane) {
+			case CANCELLATION -> settings.cancellationWeight();
+			case INTERACTIVE -> settings.interactiveWeight();
+			case BULK -> settings.bulkWeight();
+		};
+	}
+
+	private static void count(Counter counter) {
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+	// A semaphore whose size can shrink: reducePermits is protected in Semaphore
+	private static final class Slots extends Semaphore {
+
+		Slots(int permits) {
+			super(permits);
+		}
+
+		@Override
+		public void reducePermits(int reduction) {
+			super.reducePermits(reduction);
+		}
+	}
+
+	private record Pending(Long orderId, String status, long enqueuedAt, Lane lane, Observation parent) {
+	}
+}
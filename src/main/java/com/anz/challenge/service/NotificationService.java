@@ -1,15 +1,21 @@
 package com.anz.challenge.service;
 
 import com.anz.challenge.config.NotificationConfig;
+import com.anz.challenge.config.NotificationSettings;
+import com.anz.challenge.notification.NotificationChannel;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class NotificationService {
@@ -17,79 +23,109 @@ public class NotificationService {
     @Autowired
     private NotificationConfig config;
 
+    @Autowired
+    private List<NotificationChannel> channels;
+
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry;
+
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     // Simple in-memory store for idempotency
     private final ConcurrentHashMap<String, Boolean> notificationLog = new ConcurrentHashMap<>();
 
     /**
-     * Trigger notification with retry.
-     * Uses Spring Retry to automatically retry on transient failures.
+     * Trigger notification on every enabled channel without blocking the caller.
+     * Each channel is retried independently with exponential backoff, so a failing SMS gateway
+     * never causes a duplicate email. The returned future completes once every channel is done.
      */
-    @Retryable(
-        value = { RuntimeException.class }, // Retry on transient failures
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 1000, multiplier = 2, maxDelay = 8000)
-    )
-    public void notifyStatusChange(Long orderId, String status) {
+    public CompletableFuture<Void> notifyStatusChangeAsync(Long orderId, String status) {
 
         // Idempotency key: prevents duplicate notifications
         String key = orderId + ":" + status;
         if (notificationLog.putIfAbsent(key, true) != null) {
             log.info("Notification already sent for order {} with status {}. Skipping.", orderId, status);
-            return;
-        }
-        log.info("Email enabled? " + config.isEmailEnabled());
-        log.info("SMS enabled? " + config.isSmsEnabled());
-        // Send notifications if enabled
-        if (config.isEmailEnabled()) {
-            sendEmail(orderId, status);
-        }
-        if (config.isSmsEnabled()) {
-            sendSms(orderId, status);
+            return CompletableFuture.completedFuture(null);
         }
 
-        log.info("Notification processed successfully for order {} with status {}", orderId, status);
+        // Retries run on other threads, so the parent span is passed along explicitly
+        Observation parent = registry().getCurrentObservation();
+        CompletableFuture<?>[] sends = channels.stream()
+                .filter(NotificationChannel::isEnabled)
+                .map(channel -> sendWithRetry(channel, orderId, status, 1, parent))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(sends).whenComplete((ignored, error) -> {
+            if (error == null) {
+                log.info("Notification processed successfully for order {} with status {}", orderId, status);
+            } else {
+                // Release the key so a later attempt for the same change is not skipped as a duplicate
+                notificationLog.remove(key);
+                recover(unwrap(error), orderId, status);
+            }
+        });
     }
 
     /**
      * Recovery method if retries are exhausted.
      */
-    @Recover
     public void recover(RuntimeException ex, Long orderId, String status) {
         log.error("Notification failed after retries for order {} with status {}: {}", orderId, status, ex.getMessage());
         // Optional: persist to DB, send alert, or push to DLQ
     }
 
-    // Simulated Email Notification
-    private void sendEmail(Long orderId, String status) {
-        log.info("Email sent: Order {} changed to {}", orderId, status);
-
-        // Optional: simulate occasional failure
-        simulateFailure(orderId, "Email");
+    // Each attempt and each backoff wait is its own span under the delivery span
+    private CompletableFuture<Void> sendWithRetry(NotificationChannel channel, Long orderId, String status, int attempt,
+            Observation parent) {
+        Observation span = Observation.createNotStarted("order.notification.attempt", registry())
+                .contextualName(channel.name() + " attempt")
+                .parentObservation(parent)
+                .lowCardinalityKeyValue("channel", channel.name())
+                .lowCardinalityKeyValue("attempt", String.valueOf(attempt))
+                .highCardinalityKeyValue("order.id", String.valueOf(orderId))
+                .start();
+        CompletableFuture<Void> send;
+        try (Observation.Scope scope = span.openScope()) {
+            send = channel.send(orderId, status);
+        } catch (RuntimeException e) {
+            send = CompletableFuture.failedFuture(e);
+        }
+        return send.whenComplete((ignored, error) -> {
+            if (error != null) {
+                span.error(unwrap(error));
+            }
+            span.stop();
+        }).exceptionallyCompose(error -> {
+            // Retry settings may be reloaded between attempts; each decision uses one consistent snapshot
+            NotificationSettings settings = config.settings();
+            if (attempt >= settings.retryMaxAttempts()) {
+                return CompletableFuture.failedFuture(unwrap(error));
+            }
+            long delay = backoffMillis(settings, attempt);
+            log.warn("{} notification attempt {} failed for order {}: {}. Retrying in {} ms",
+                    channel.name(), attempt, orderId, unwrap(error).getMessage(), delay);
+            Observation backoff = Observation.createNotStarted("order.notification.backoff", registry())
+                    .contextualName(channel.name() + " backoff")
+                    .parentObservation(parent)
+                    .lowCardinalityKeyValue("channel", channel.name())
+                    .start();
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(backoff::stop, delayed)
+                    .thenCompose(ignored -> sendWithRetry(channel, orderId, status, attempt + 1, parent));
+        });
     }
 
-    // Simulated SMS Notification
-    private void sendSms(Long orderId, String status) {
-        log.info("SMS sent: Order {} changed to {}", orderId, status);
-
-        // Optional: simulate occasional failure
-        simulateFailure(orderId, "SMS");
+    private ObservationRegistry registry() {
+        return observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
     }
 
-    private void simulateFailure(Long orderId, String type) {
-        double randomValue = Math.random();
-        boolean shouldFail = randomValue < 0.2;
-
-        log.info(
-            "simulateFailure - orderId={}, type={}, randomValue={}, threshold=0.2, shouldFail={}",
-            orderId, type, randomValue, shouldFail
-        );
+    private static long backoffMillis(NotificationSettings settings, int attempt) {
+        double delay = settings.retryBackoffMs() * Math.pow(settings.retryMultiplier(), attempt - 1);
+        return (long) Math.min(delay, settings.retryMaxBackoffMs());
+    }
 
-        if (shouldFail) {
-            throw new RuntimeException(
-                type + " service simulated failure for order " + orderId
-            );
-        }
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
     }
 }
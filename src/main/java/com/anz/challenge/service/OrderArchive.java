@@ -0,0 +1,232 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.model.ArchivedOrder;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ArchivedOrderRepository;
+import com.anz.challenge.repository.ShardedOrderStore;
+import com.anz.challenge.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold storage for terminal orders. COMPLETED and CANCELLED orders can never change again, so once they are older
+ * than {@code order.archive.min-age} a background task moves them from {@code orders} to {@code orders_archive} in
+ * batches, keeping the hot table (and its indexes) small. Reads fall back to the archive: lookups by id try the hot
+ * table first, and searches that can match terminal orders continue into the archive after the hot rows.
+ */
+@Component
+public class OrderArchive {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+
+	// Set-based SQL sees every tenant; the @TenantId restriction only applies to JPA queries
+	private static final String SELECT_BATCH = "select id from orders where status in ('COMPLETED', 'CANCELLED') "
+			+ "and created_at < :cutoff order by id limit :limit";
+	private static final String COPY_BATCH = "insert into orders_archive "
+			+ "(id, tenant_id, description, status, created_at, version, archived_at) "
+			+ "select id, tenant_id, description, status, created_at, version, :archivedAt from orders where id in (:ids)";
+	private static final String DELETE_BATCH = "delete from orders where id in (:ids)";
+
+	@Autowired
+	private ArchivedOrderRepository archivedRepository;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private OrderReadCoalescer readCoalescer;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.archive.enabled:true}")
+	private boolean enabled;
+
+	@Value("${order.archive.min-age:7d}")
+	private Duration minAge;
+
+	@Value("${order.archive.interval-ms:60000}")
+	private long intervalMs;
+
+	@Value("${order.archive.batch-size:1000}")
+	private int batchSize;
+
+	private ScheduledExecutorService archiver;
+	private Counter archived;
+
+	// Archived rows only change when an archiver runs, so searches reuse their counts (per tenant and status) until
+	// this instance's next run; another instance's moves show up at most one interval late
+	private final Map<String, Long> archivedCounts = new ConcurrentHashMap<>();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled || shardedStore != null) {
+			log.info("Order archiving disabled{}", shardedStore != null ? " (sharded storage)" : "");
+			return;
+		}
+		if (meterRegistry != null) {
+			archived = Counter.builder("orders.archived")
+					.description("Terminal orders moved to the archive table")
+					.register(meterRegistry);
+		}
+		archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "order-archiver");
+			t.setDaemon(true);
+			return t;
+		});
+		archiver.scheduleWithFixedDelay(this::archiveSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		log.info("Archiving terminal orders older than {} every {} ms in batches of {}", minAge, intervalMs, batchSize);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (archiver != null) {
+			archiver.shutdownNow();
+		}
+	}
+
+	/**
+	 * Moves every eligible order, one transaction per batch so locks and undo stay bounded.
+	 * Returns the number of orders archived.
+	 */
+	public int archive() {
+		LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+		int total = 0;
+		int moved;
+		try {
+			do {
+				moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+				total += moved;
+			} while (moved == batchSize);
+		} finally {
+			archivedCounts.clear();
+		}
+		if (total > 0) {
+			readCoalescer.ordersArchived();
+			if (archived != null) {
+				archived.increment(total);
+			}
+			log.info("Archived {} terminal orders created before {}", total, cutoff);
+		}
+		return total;
+	}
+
+	private int archiveBatch(LocalDateTime cutoff) {
+		List<Long> ids = jdbc.queryForList(SELECT_BATCH, new MapSqlParameterSource()
+				.addValue("cutoff", Timestamp.valueOf(cutoff))
+				.addValue("limit", batchSize), Long.class);
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("ids", ids)
+				.addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+		jdbc.update(COPY_BATCH, params);
+		jdbc.update(DELETE_BATCH, params);
+		return ids.size();
+	}
+
+	private void archiveSafely() {
+		try {
+			archive();
+		} catch (RuntimeException e) {
+			log.error("Order archiving failed, will retry in {} ms: {}", intervalMs, e.getMessage());
+		}
+	}
+
+	public Optional<Order> findById(Long id) {
+		return archivedRepository.findById(id).map(ArchivedOrder::toOrder);
+	}
+
+	public Optional<Long> findVersionById(Long id) {
+		return archivedRepository.findVersionById(id);
+	}
+
+	public List<Order> findByStatus(Order.Status status) {
+		if (status == Order.Status.CREATED) {
+			return List.of();
+		}
+		return archivedRepository.findByStatusOrderById(status).stream().map(ArchivedOrder::toOrder).toList();
+	}
+
+	/**
+	 * Extends a page of hot orders with archived ones: the archive's rows follow the hot table's, so the page is
+	 * filled from the archive once the hot rows run out, and the total counts both. The archive is only queried for
+	 * rows when the hot page is short; its count is cached.
+	 */
+	public Page<Order> appendTo(Page<Order> hot, Order.Status status, Pageable pageable) {
+		if (status == Order.Status.CREATED) {
+			return hot;
+		}
+		long archivedCount = archivedCount(status);
+		if (archivedCount == 0) {
+			return hot;
+		}
+		List<Order> content = new ArrayList<>(hot.getContent());
+		int missing = pageable.getPageSize() - content.size();
+		if (missing > 0) {
+			long offset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+			content.addAll(find(status, offset, missing));
+		}
+		return new PageImpl<>(content, pageable, hot.getTotalElements() + archivedCount);
+	}
+
+	private long archivedCount(Order.Status status) {
+		String key = TenantContext.getTenant() + ":" + status;
+		Long count = archivedCounts.get(key);
+		if (count == null) {
+			count = status != null ? archivedRepository.countByStatus(status) : archivedRepository.count();
+			archivedCounts.put(key, count);
+		}
+		return count;
+	}
+
+	private List<Order> find(Order.Status status, long offset, int limit) {
+		TypedQuery<ArchivedOrder> query = entityManager.createQuery(status != null
+				? "select a from ArchivedOrder a where a.status = :status order by a.id"
+				: "select a from ArchivedOrder a order by a.id", ArchivedOrder.class);
+		if (status != null) {
+			query.setParameter("status", status);
+		}
+		return query.setFirstResult(Math.toIntExact(offset)).setMaxResults(limit).getResultList().stream()
+				.map(ArchivedOrder::toOrder).toList();
+	}
+}
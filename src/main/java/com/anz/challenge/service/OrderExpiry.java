@@ -0,0 +1,273 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.concurrent.TimerWheel;
+import com.anz.challenge.journal.OrderEventJournal;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ShardedOrderStore;
+import com.anz.challenge.search.OrderSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expiry policy for orders left in CREATED: once an order is older than {@code order.expiry.after} it is moved to
+ * {@code order.expiry.status} (CANCELLED by default). Instead of polling the table, every pending order has a timer
+ * in a {@link TimerWheel}, seeded from {@code createdAt} on startup and extended as orders are created here. Each
+ * tick, the expired ids are transitioned with set-based updates in batches of {@code order.expiry.batch-size}, then
+ * journaled, re-indexed and notified in bulk.
+ *
+ * Orders completed or cancelled before their deadline keep their timer; the update only touches orders that may
+ * still change status, so those are skipped when it fires. Each instance expires the orders it created or loaded at
+ * startup, and instances may overlap safely. Disabled with sharded storage.
+ */
+@Component
+public class OrderExpiry {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderExpiry.class);
+
+	// Set-based SQL sees every tenant, like the archiver
+	private static final String SEED = "select id, created_at from orders where status = 'CREATED'";
+	private static final String LOCK_BATCH = "select id, tenant_id, description, status, created_at, version "
+			+ "from orders where id in (:ids) and status in (:open) for update";
+	private static final String UPDATE_BATCH = "update orders set status = :status, version = version + 1 "
+			+ "where id in (:ids)";
+
+	// The same rule as updateStatus: terminal orders never change again
+	private static final List<String> OPEN_STATUSES = Arrays.stream(Order.Status.values())
+			.filter(status -> !status.isTerminal()).map(Order.Status::name).toList();
+
+	private static final RowMapper<Order> ORDER_MAPPER = (rs, rowNum) -> {
+		Order order = new Order(rs.getLong("id"), rs.getString("description"),
+				Order.Status.valueOf(rs.getString("status")));
+		order.setTenant(rs.getString("tenant_id"));
+		order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+		order.setVersion(rs.getLong("version"));
+		return order;
+	};
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private OrderReadCoalescer readCoalescer;
+
+	@Autowired
+	private OrderEventJournal journal;
+
+	@Autowired
+	private OrderSearchIndex searchIndex;
+
+	@Autowired
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.expiry.enabled:false}")
+	private boolean enabled;
+
+	@Value("${order.expiry.after:24h}")
+	private Duration after;
+
+	@Value("${order.expiry.status:CANCELLED}")
+	private Order.Status expiredStatus;
+
+	@Value("${order.expiry.tick-ms:1000}")
+	private long tickMs;
+
+	@Value("${order.expiry.batch-size:500}")
+	private int batchSize;
+
+	private volatile TimerWheel wheel;
+	private ScheduledExecutorService ticker;
+	private Counter expired;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled || shardedStore != null) {
+			log.info("Order expiry disabled{}", shardedStore != null ? " (sharded storage)" : "");
+			return;
+		}
+		if (!expiredStatus.isTerminal()) {
+			throw new IllegalStateException("order.expiry.status must be a terminal status, not " + expiredStatus);
+		}
+		TimerWheel timers = new TimerWheel(tickMs, nowMillis());
+		// Published first, so orders committed while seeding are scheduled too (at worst twice, which is harmless)
+		wheel = timers;
+		long start = System.nanoTime();
+		jdbc.getJdbcTemplate().query(SEED, (RowCallbackHandler) rs -> timers.schedule(rs.getLong("id"),
+				deadline(rs.getTimestamp("created_at").toLocalDateTime())));
+		if (meterRegistry != null) {
+			expired = Counter.builder("orders.expired")
+					.description("CREATED orders moved to " + expiredStatus + " by the expiry policy")
+					.register(meterRegistry);
+			Gauge.builder("orders.expiry.pending", timers, TimerWheel::size)
+					.description("Expiry timers not yet fired, including those of orders that have since changed")
+					.register(meterRegistry);
+		}
+		log.info("Expiring CREATED orders to {} after {}: {} timers loaded in {} ms", expiredStatus, after,
+				timers.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "order-expiry");
+			t.setDaemon(true);
+			return t;
+		});
+		ticker.scheduleWithFixedDelay(this::expireSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (ticker != null) {
+			ticker.shutdownNow();
+		}
+	}
+
+	// Called after commit for orders created on this instance
+	public void schedule(Collection<Order> orders) {
+		TimerWheel timers = wheel;
+		if (timers == null) {
+			return;
+		}
+		for (Order order : orders) {
+			if (order.getStatus() == Order.Status.CREATED && order.getCreatedAt() != null) {
+				timers.schedule(order.getId(), deadline(order.getCreatedAt()));
+			}
+		}
+	}
+
+	public long pending() {
+		TimerWheel timers = wheel;
+		return timers != null ? timers.size() : 0;
+	}
+
+	/**
+	 * Transitions every order whose timer has fired, one transaction per batch. Returns the number of orders
+	 * expired; fired timers of orders that already left CREATED are dropped.
+	 */
+	public int expireDue() {
+		TimerWheel timers = wheel;
+		if (timers == null) {
+			return 0;
+		}
+		long[] due = timers.advance(nowMillis());
+		int total = 0;
+		for (int from = 0; from < due.length; from += batchSize) {
+			List<Long> ids = new ArrayList<>();
+			for (int i = from; i < Math.min(due.length, from + batchSize); i++) {
+				ids.add(due[i]);
+			}
+			List<Order> batch;
+			try {
+				batch = transactionTemplate.execute(status -> expireBatch(ids));
+			} catch (RuntimeException e) {
+				// Fire this and the remaining batches again on the next tick rather than losing the timers
+				for (int i = from; i < due.length; i++) {
+					timers.schedule(due[i], nowMillis());
+				}
+				throw e;
+			}
+			afterExpired(batch);
+			total += batch.size();
+		}
+		if (total > 0) {
+			log.info("Expired {} CREATED orders to {}", total, expiredStatus);
+		}
+		return total;
+	}
+
+	private List<Order> expireBatch(List<Long> ids) {
+		List<Order> orders = jdbc.query(LOCK_BATCH, new MapSqlParameterSource()
+				.addValue("ids", ids)
+				.addValue("open", OPEN_STATUSES), ORDER_MAPPER);
+		if (orders.isEmpty()) {
+			return orders;
+		}
+		jdbc.update(UPDATE_BATCH, new MapSqlParameterSource()
+				.addValue("ids", orders.stream().map(Order::getId).toList())
+				.addValue("status", expiredStatus.name()));
+		return orders;
+	}
+
+	// Same side effects as OrderService.updateStatus, batched and run once the batch has committed (the orders still
+	// hold the status they were locked with); failures are logged and never undo the expiry
+	private void afterExpired(List<Order> orders) {
+		if (orders.isEmpty()) {
+			return;
+		}
+		for (Order order : orders) {
+			Order.Status previousStatus = order.getStatus();
+			order.setStatus(expiredStatus);
+			order.setVersion(order.getVersion() + 1);
+			journalStatusChange(order, previousStatus);
+		}
+		orders.forEach(order -> readCoalescer.orderChanged(order.getTenant(), order.getId()));
+		if (expired != null) {
+			expired.increment(orders.size());
+		}
+		try {
+			searchIndex.index(orders);
+		} catch (RuntimeException e) {
+			log.error("Failed to index {} expired orders for search: {}", orders.size(), e.getMessage());
+		}
+		try {
+			notificationDispatcher.submit(orders, NotificationDispatcher.Source.BULK);
+		} catch (RuntimeException e) {
+			log.error("Failed to queue notifications for {} expired orders: {}", orders.size(), e.getMessage());
+		}
+	}
+
+	private void journalStatusChange(Order order, Order.Status previousStatus) {
+		try {
+			journal.recordStatusChange(order, previousStatus);
+		} catch (RuntimeException e) {
+			log.error("Failed to journal expiry of order {}: {}", order.getId(), e.getMessage());
+		}
+	}
+
+	private void expireSafely() {
+		try {
+			expireDue();
+		} catch (RuntimeException e) {
+			log.error("Order expiry failed, will retry in {} ms: {}", tickMs, e.getMessage());
+		}
+	}
+
+	// createdAt is a local wall-clock time, so deadlines and now are compared on the same (offset-free) scale
+	private long deadline(LocalDateTime createdAt) {
+		return createdAt.plus(after).toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	private static long nowMillis() {
+		return LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+}
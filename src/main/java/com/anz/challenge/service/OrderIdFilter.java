@@ -0,0 +1,180 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.concurrent.ConcurrentBitSet;
+import com.anz.challenge.repository.ShardedOrderStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "can this order id exist?" without a database round trip, so lookups for stale or made-up ids are
+ * rejected in memory. Ids are IDENTITY-generated and dense, so instead of a Bloom filter this keeps an exact bitmap
+ * of every id in {@code orders} and {@code orders_archive} (about one bit per order): there are no false positives
+ * below the watermark.
+ *
+ * The bitmap is loaded on startup and kept current by a background scan of new ids every
+ * {@code order.id-filter.refresh-ms}, which also picks up orders created by other instances. An id is only treated
+ * as missing if it is at or below the watermark: the highest id seen by a scan that ended at least
+ * {@code order.id-filter.grace} ago, so every transaction that allocated a lower id has committed and been scanned
+ * since. Newer ids always go to the database. Disabled with sharded storage, whose ids are not allocated in order.
+ */
+@Component
+public class OrderIdFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderIdFilter.class);
+
+	// Set-based SQL sees every tenant; the tenant check happens in the database lookup that follows
+	private static final String SCAN = "select id from orders where id > ? "
+			+ "union all select id from orders_archive where id > ?";
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.id-filter.enabled:true}")
+	private boolean enabled;
+
+	@Value("${order.id-filter.refresh-ms:1000}")
+	private long refreshMs;
+
+	// Longer than any insert transaction
+	@Value("${order.id-filter.grace:30s}")
+	private Duration grace;
+
+	private final ConcurrentBitSet ids = new ConcurrentBitSet();
+	private final ArrayDeque<Observation> observations = new ArrayDeque<>();
+	private volatile boolean active;
+	private volatile long watermark;
+	private long highestSeen;
+	private ScheduledExecutorService refresher;
+	private Counter rejected;
+	private Counter passed;
+	private Counter passedMissing;
+
+	private record Observation(long at, long highestId) {
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled || shardedStore != null) {
+			log.info("Order id filter disabled{}", shardedStore != null ? " (sharded storage)" : "");
+			return;
+		}
+		if (meterRegistry != null) {
+			rejected = lookups("rejected");
+			passed = lookups("passed");
+			passedMissing = lookups("passed_missing");
+			Gauge.builder("orders.idfilter.memory", ids, ConcurrentBitSet::memoryBytes)
+					.description("Memory held by the order id bitmap")
+					.baseUnit("bytes")
+					.register(meterRegistry);
+			Gauge.builder("orders.idfilter.watermark", this, f -> f.watermark)
+					.description("Highest id below which missing ids are rejected without a database lookup")
+					.register(meterRegistry);
+		}
+		long start = System.nanoTime();
+		refresh();
+		log.info("Order id filter loaded up to id {} in {} ms ({} bytes)", highestSeen,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), ids.memoryBytes());
+		active = true;
+		refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "order-id-filter");
+			t.setDaemon(true);
+			return t;
+		});
+		refresher.scheduleWithFixedDelay(this::refreshSafely, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+	}
+
+	/**
+	 * False only if no order with this id exists in any tenant; true means "look it up". Counted as a rejection or
+	 * a pass; report passes that found nothing with {@link #passedButMissing()}.
+	 */
+	public boolean mightExist(long id) {
+		if (!active) {
+			return true;
+		}
+		boolean maybe = id > watermark || ids.get(id);
+		Counter counter = maybe ? passed : rejected;
+		if (counter != null) {
+			counter.increment();
+		}
+		return maybe;
+	}
+
+	// The id passed the filter but the lookup found nothing: above the watermark, or another tenant's order
+	public void passedButMissing() {
+		if (active && passedMissing != null) {
+			passedMissing.increment();
+		}
+	}
+
+	// Ids created here are marked right away; the next scan would find them anyway
+	public void add(long id) {
+		if (active) {
+			ids.set(id);
+		}
+	}
+
+	/**
+	 * Scans ids above the watermark (everything on the first call), then advances the watermark to the highest id
+	 * seen by the latest scan that ended at least {@code grace} before this one started.
+	 */
+	public synchronized void refresh() {
+		long scanStart = System.nanoTime();
+		long from = watermark;
+		long[] highest = { highestSeen };
+		jdbc.query(SCAN, rs -> {
+			long id = rs.getLong(1);
+			ids.set(id);
+			highest[0] = Math.max(highest[0], id);
+		}, from, from);
+		highestSeen = highest[0];
+		observations.addLast(new Observation(System.nanoTime(), highestSeen));
+		long graceNanos = grace.toNanos();
+		while (!observations.isEmpty() && scanStart - observations.peekFirst().at() >= graceNanos) {
+			watermark = observations.pollFirst().highestId();
+		}
+	}
+
+	private void refreshSafely() {
+		try {
+			refresh();
+		} catch (RuntimeException e) {
+			log.warn("Order id filter refresh failed: {}", e.getMessage());
+		}
+	}
+
+	private Counter lookups(String result) {
+		return Counter.builder("orders.idfilter.lookups")
+				.description("Order id lookups checked against the id filter, by outcome")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
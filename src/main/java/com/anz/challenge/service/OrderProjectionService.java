@@ -0,0 +1,123 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.dto.OrderField;
+import com.anz.challenge.dto.OrderFields;
+import com.anz.challenge.dto.SlimPage;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ShardedOrderStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Order lists restricted to the fields a client asked for ({@code fields=id,status}). Only the selected columns
+ * (plus id and version, for the ETag) are read, so unrequested descriptions never leave the database, and the rows
+ * are returned as {@link OrderFields} without the entity's other attributes.
+ *
+ * Paging follows {@code GET /orders}: hot orders by id, then archived ones once the hot rows run out, with totals
+ * counting both. With sharded storage pages are merged from full rows and only trimmed before serialization.
+ */
+@Service
+public class OrderProjectionService {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
+
+	public SlimPage<OrderFields> findPage(String tenant, Order.Status status, Set<OrderField> fields,
+			Pageable pageable) {
+		if (shardedStore != null) {
+			Page<Order> page = shardedStore.search(status, pageable, tenant);
+			return new SlimPage<>(page.getContent().stream().map(o -> OrderFields.of(o, fields)).toList(),
+					pageable.getPageNumber(), pageable.getPageSize(), page.getTotalElements());
+		}
+		Where where = new Where(tenant, status);
+		boolean archived = status != Order.Status.CREATED;
+		long hotCount = count("orders", where);
+		long total = hotCount + (archived ? count("orders_archive", where) : 0);
+
+		List<OrderFields> content = new ArrayList<>();
+		if (pageable.getOffset() < hotCount) {
+			content.addAll(select(fields, "orders", where, pageable.getOffset(), pageable.getPageSize()));
+		}
+		int missing = pageable.getPageSize() - content.size();
+		if (archived && missing > 0 && pageable.getOffset() + content.size() < total) {
+			long offset = Math.max(0, pageable.getOffset() - hotCount);
+			content.addAll(select(fields, "orders_archive", where, offset, missing));
+		}
+		return new SlimPage<>(content, pageable.getPageNumber(), pageable.getPageSize(), total);
+	}
+
+	// Every order of the tenant with this status, hot then archived
+	public List<OrderFields> findByStatus(String tenant, Order.Status status, Set<OrderField> fields) {
+		Where where = new Where(tenant, status);
+		String columns = columns(fields);
+		RowMapper<OrderFields> mapper = mapper(fields);
+		List<OrderFields> result = new ArrayList<>();
+		if (shardedStore != null) {
+			shardedStore.queryEachShard("select " + columns + " from orders" + where.sql() + " order by id",
+					rs -> result.add(mapper.mapRow(rs, 0)), where.args());
+			return result;
+		}
+		result.addAll(jdbc.query("select " + columns + " from orders" + where.sql() + " order by id", mapper,
+				where.args()));
+		if (status != Order.Status.CREATED) {
+			result.addAll(jdbc.query("select " + columns + " from orders_archive" + where.sql() + " order by id",
+					mapper, where.args()));
+		}
+		return result;
+	}
+
+	private long count(String table, Where where) {
+		Long count = jdbc.queryForObject("select count(*) from " + table + where.sql(), Long.class, where.args());
+		return count != null ? count : 0;
+	}
+
+	private List<OrderFields> select(Set<OrderField> fields, String table, Where where, long offset, int limit) {
+		Object[] args = new Object[where.args().length + 2];
+		System.arraycopy(where.args(), 0, args, 0, where.args().length);
+		args[args.length - 2] = limit;
+		args[args.length - 1] = offset;
+		return jdbc.query("select " + columns(fields) + " from " + table + where.sql()
+				+ " order by id limit ? offset ?", mapper(fields), args);
+	}
+
+	private static String columns(Set<OrderField> fields) {
+		StringBuilder columns = new StringBuilder("id, version");
+		for (OrderField field : fields) {
+			if (field != OrderField.ID) {
+				columns.append(", ").append(field.column());
+			}
+		}
+		return columns.toString();
+	}
+
+	private static RowMapper<OrderFields> mapper(Set<OrderField> fields) {
+		boolean status = fields.contains(OrderField.STATUS);
+		boolean createdAt = fields.contains(OrderField.CREATED_AT);
+		boolean description = fields.contains(OrderField.DESCRIPTION);
+		return (rs, rowNum) -> new OrderFields(rs.getLong("id"),
+				status ? rs.getString("status") : null,
+				createdAt ? rs.getTimestamp("created_at").toLocalDateTime() : null,
+				description ? rs.getString("description") : null,
+				rs.getLong("version"));
+	}
+
+	// JDBC sees every tenant, so the tenant is always part of the filter
+	private record Where(String sql, Object[] args) {
+
+		Where(String tenant, Order.Status status) {
+			this(status != null ? " where tenant_id = ? and status = ?" : " where tenant_id = ?",
+					status != null ? new Object[] { tenant, status.name() } : new Object[] { tenant });
+		}
+	}
+}
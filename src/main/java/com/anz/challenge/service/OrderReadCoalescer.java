@@ -0,0 +1,118 @@
+package com.anz.challenge.service;
+
+import com.anz.challenge.concurrent.SingleFlight;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer for order reads: concurrent identical lookups (same id, or same status and page) share one
+ * query, optionally followed by a short result TTL. Writes invalidate the affected entries. Keys include the
+ * current tenant, so identical reads from different tenants never share a result.
+ */
+@Component
+public class OrderReadCoalescer {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderReadCoalescer.class);
+
+	@Value("${order.read.coalescing.enabled:true}")
+	private boolean enabled;
+
+	// 0 = only coalesce in-flight reads, never serve a completed result
+	@Value("${order.read.result-ttl-ms:0}")
+	private long resultTtlMs;
+
+	@Value("${order.read.max-cached-results:10000}")
+	private int maxCachedResults;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private SingleFlight<OrderKey, Optional<Order>> orders;
+	private SingleFlight<SearchKey, Page<Order>> searches;
+
+	@PostConstruct
+	public void init() {
+		orders = new SingleFlight<>(resultTtlMs, maxCachedResults);
+		searches = new SingleFlight<>(resultTtlMs, maxCachedResults);
+		if (meterRegistry != null) {
+			register("get", orders);
+			register("search", searches);
+		}
+		log.info("Read coalescing enabled? {} (result TTL {} ms)", enabled, resultTtlMs);
+	}
+
+	public Optional<Order> getOrder(Long id, Supplier<Optional<Order>> loader) {
+		return isActive() ? orders.execute(new OrderKey(TenantContext.getTenant(), id), loader) : loader.get();
+	}
+
+	public Page<Order> searchOrders(Order.Status status, Pageable pageable, Supplier<Page<Order>> loader) {
+		if (!isActive()) {
+			return loader.get();
+		}
+		SearchKey key = new SearchKey(TenantContext.getTenant(), status, pageable.getPageNumber(),
+				pageable.getPageSize(), pageable.getSort());
+		return searches.execute(key, loader);
+	}
+
+	public void orderChanged(Long id) {
+		orderChanged(TenantContext.getTenant(), id);
+	}
+
+	// For changes made outside a request, e.g. by a background task working across tenants
+	public void orderChanged(String tenant, Long id) {
+		if (orders != null) {
+			orders.invalidate(new OrderKey(tenant, id));
+			searches.invalidateAll();
+		}
+	}
+
+	public void ordersCreated() {
+		if (searches != null) {
+			searches.invalidateAll();
+		}
+	}
+
+	// Archived orders keep their content, so only page results (which span both tables) are affected
+	public void ordersArchived() {
+		ordersCreated();
+	}
+
+	private boolean isActive() {
+		return enabled && orders != null;
+	}
+
+	private void register(String operation, SingleFlight<?, ?> flight) {
+		FunctionCounter.builder("orders.read.executions", flight, SingleFlight::executions)
+				.description("Order reads that hit the database")
+				.tag("operation", operation)
+				.register(meterRegistry);
+		FunctionCounter.builder("orders.read.coalesced", flight, SingleFlight::coalesced)
+				.description("Order reads that waited for an identical in-flight read")
+				.tag("operation", operation)
+				.register(meterRegistry);
+		FunctionCounter.builder("orders.read.cache.hits", flight, SingleFlight::cacheHits)
+				.description("Order reads served from the short-lived result cache")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+
+	private record OrderKey(String tenant, Long id) {
+	}
+
+	private record SearchKey(String tenant, Order.Status status, int page, int size, Sort sort) {
+	}
+}
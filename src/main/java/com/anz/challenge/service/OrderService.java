@@ -2,8 +2,12 @@ package com.anz.challenge.service;
 
 import com.anz.challenge.model.Order;
 import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.repository.ShardedOrderStore;
 import com.anz.challenge.dto.OrderSummary;
 import com.anz.challenge.exception.OrderNotFoundException;
+import com.anz.challenge.journal.OrderEventJournal;
+import com.anz.challenge.search.OrderSearchIndex;
+import com.anz.challenge.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +16,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -26,75 +34,210 @@ public class OrderService {
 	private OrderRepository repository;
 
 	@Autowired
-	private NotificationService notificationService;
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired
+	private OrderEventJournal journal;
+
+	@Autowired
+	private OrderReadCoalescer readCoalescer;
+
+	@Autowired
+	private OrderArchive archive;
+
+	@Autowired
+	private OrderSearchIndex searchIndex;
+
+	@Autowired
+	private OrderIdFilter idFilter;
+
+	@Autowired
+	private OrderExpiry expiry;
+
+	// Present when order.sharding.enabled=true; orders then live in the shards instead of the JPA table
+	@Autowired(required = false)
+	private ShardedOrderStore shardedStore;
 
 	@Transactional
 	public Order createOrder(Order order) {
 		if (order.getStatus() == null)
 			order.setStatus(Order.Status.CREATED);
-		Order saved = repository.save(order);
-		sendNotificationsAsync(saved);
+		Order saved = shardedStore != null ? shardedStore.insert(order, TenantContext.getTenant())
+				: repository.save(order);
+		afterCommit(() -> journalCreated(List.of(saved)));
+		afterCommit(readCoalescer::ordersCreated);
+		afterCommit(() -> idFilter.add(saved.getId()));
+		afterCommit(() -> expiry.schedule(List.of(saved)));
+		afterCommit(() -> indexOrders(List.of(saved)));
+		afterCommit(() -> sendNotificationsAsync(saved));
 		return saved;
 	}
 
 	@Transactional
 	public List<Order> createBulkOrders(List<Order> orders) {
 		List<Order> saved = saveOrdersTransactional(orders);
-		sendNotificationsAsync(saved);
+		afterCommit(() -> journalCreated(saved));
+		afterCommit(readCoalescer::ordersCreated);
+		afterCommit(() -> saved.forEach(o -> idFilter.add(o.getId())));
+		afterCommit(() -> expiry.schedule(saved));
+		afterCommit(() -> indexOrders(saved));
+		afterCommit(() -> sendNotificationsAsync(saved, NotificationDispatcher.Source.BULK));
 		return saved;
 	}
 
 	@Transactional
 	public List<Order> saveOrdersTransactional(List<Order> orders) {
+		if (shardedStore != null) {
+			return shardedStore.insertAll(orders, TenantContext.getTenant());
+		}
 		return repository.saveAll(orders);
 	}
 
 	public void sendNotificationsAsync(Order order) {
-		sendNotificationsAsync(List.of(order));
+		sendNotificationsAsync(List.of(order), NotificationDispatcher.Source.INTERACTIVE);
+	}
+
+	// Queued on the notification lanes; delivery failures are logged by the dispatcher
+	public void sendNotificationsAsync(List<Order> orders, NotificationDispatcher.Source source) {
+		try {
+			notificationDispatcher.submit(orders, source);
+		} catch (Exception e) {
+			log.error("Failed to queue notifications for {} orders: {}", orders.size(), e.getMessage());
+		}
 	}
 
-	public void sendNotificationsAsync(List<Order> orders) {
-		for (Order o : orders) {
-			try {
-				notificationService.notifyStatusChange(o.getId(), o.getStatus().name());
-			} catch (Exception e) {
-				log.error("Notification failed for order {}: {}", o.getId(), e.getMessage());
+	// Journaled after commit so a rolled-back change never reaches the journal; a crash between the commit and the
+	// append loses the event, and journal failures must not fail the order operation itself
+	private void journalCreated(List<Order> orders) {
+		try {
+			for (Order o : orders) {
+				journal.recordCreated(o);
 			}
+		} catch (RuntimeException e) {
+			log.error("Failed to journal created orders: {}", e.getMessage());
+		}
+	}
+
+	private void journalStatusChange(Order order, Order.Status previousStatus) {
+		try {
+			journal.recordStatusChange(order, previousStatus);
+		} catch (RuntimeException e) {
+			log.error("Failed to journal status change for order {}: {}", order.getId(), e.getMessage());
+		}
+	}
+
+	// Like the journal, a failed index update must not fail the order operation; a rebuild repairs it
+	private void indexOrders(List<Order> orders) {
+		try {
+			searchIndex.index(orders);
+		} catch (RuntimeException e) {
+			log.error("Failed to index {} orders for search: {}", orders.size(), e.getMessage());
+		}
+	}
+
+	// Journal, invalidate cached reads and notify only once the change is visible to new readers
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
 		}
 	}
 
 	public Optional<Order> getOrder(Long id) {
-		return repository.findById(id);
+		return readCoalescer.getOrder(id, () -> findById(id));
+	}
+
+	public Optional<Long> getOrderVersion(Long id) {
+		if (!idFilter.mightExist(id)) {
+			return Optional.empty();
+		}
+		Optional<Long> version = shardedStore != null
+				? shardedStore.findVersionById(id, TenantContext.getTenant())
+				: repository.findVersionById(id).or(() -> archive.findVersionById(id));
+		if (version.isEmpty()) {
+			idFilter.passedButMissing();
+		}
+		return version;
+	}
+
+	// Ids the filter knows cannot exist (stale references) are answered without touching the database
+	private Optional<Order> findById(Long id) {
+		if (!idFilter.mightExist(id)) {
+			return Optional.empty();
+		}
+		Optional<Order> order = findStoredById(id);
+		if (order.isEmpty()) {
+			idFilter.passedButMissing();
+		}
+		return order;
+	}
+
+	// Terminal orders may have moved to the archive; they cannot be updated, so they only matter for reads
+	private Optional<Order> findStoredById(Long id) {
+		if (shardedStore != null) {
+			return shardedStore.findById(id, TenantContext.getTenant());
+		}
+		return repository.findById(id).or(() -> archive.findById(id));
 	}
 
 	@Transactional
 	public Order updateStatus(Long id, Order.Status status) {
-		Order order = repository.findById(id).orElseThrow(() -> new OrderNotFoundException(id));
+		Order order = findById(id).orElseThrow(() -> new OrderNotFoundException(id));
 		// Validate allowed transitions
 		validateStatusChange(order, status);
-		order.setStatus(status);
-		Order updated = repository.save(order);
-		sendNotificationsAsync(updated);
+		Order.Status previousStatus = order.getStatus();
+		Order updated;
+		if (shardedStore != null) {
+			updated = shardedStore.updateStatus(order, status, TenantContext.getTenant());
+		} else {
+			order.setStatus(status);
+			updated = repository.save(order);
+		}
+		afterCommit(() -> journalStatusChange(updated, previousStatus));
+		afterCommit(() -> readCoalescer.orderChanged(id));
+		afterCommit(() -> indexOrders(List.of(updated)));
+		afterCommit(() -> sendNotificationsAsync(updated));
 		return updated;
 	}
 
 	// Search with optional status and pagination
 	public Page<Order> searchOrders(Order.Status status, Pageable pageable) {
-		if (status != null) {
-			return repository.findByStatus(status, pageable);
-		} else {
-			return repository.findAll(pageable);
-		}
+		return readCoalescer.searchOrders(status, pageable, () -> {
+			if (shardedStore != null) {
+				return shardedStore.search(status, pageable, TenantContext.getTenant());
+			}
+			Page<Order> hot = status != null ? repository.findByStatus(status, pageable) : repository.findAll(pageable);
+			return archive.appendTo(hot, status, pageable);
+		});
+	}
+
+	// Full-text search over descriptions, ranked by relevance
+	public Page<OrderSummary> searchDescriptions(String text, Order.Status status, LocalDateTime from,
+			LocalDateTime to, Pageable pageable) {
+		return searchIndex.search(text, status, from, to, pageable);
 	}
 
 	private void validateStatusChange(Order order, Order.Status newStatus) {
-		if (order.getStatus() == Order.Status.COMPLETED || order.getStatus() == Order.Status.CANCELLED) {
+		if (order.getStatus().isTerminal()) {
 			throw new IllegalArgumentException("Cannot change status from " + order.getStatus());
 		}
 	}
 
 	public List<OrderSummary> getOrdersByStatusStream(Order.Status status) {
-		return repository.findAll() // fetch all orders
+		List<Order> orders = new ArrayList<>();
+		if (shardedStore != null) {
+			orders.addAll(shardedStore.findByStatus(status, TenantContext.getTenant()));
+		} else {
+			orders.addAll(repository.findAll()); // fetch all orders
+			orders.addAll(archive.findByStatus(status));
+		}
+		return orders
 				.stream() // create a stream
 				.filter(order -> order.getStatus() == status) // filter by status
 				.map(order -> {
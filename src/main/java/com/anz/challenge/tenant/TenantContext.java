@@ -0,0 +1,28 @@
+package com.anz.challenge.tenant;
+
+/**
+ * Tenant of the request being served on the current thread, taken from the JWT {@code tenant} claim by
+ * {@code JwtFilter}. Threads without a request (seeding, notification delivery) act for {@link #DEFAULT_TENANT}.
+ */
+public final class TenantContext {
+
+	public static final String DEFAULT_TENANT = "default";
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private TenantContext() {
+	}
+
+	public static String getTenant() {
+		String tenant = CURRENT.get();
+		return tenant != null ? tenant : DEFAULT_TENANT;
+	}
+
+	public static void setTenant(String tenant) {
+		CURRENT.set(tenant);
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+}
@@ -0,0 +1,31 @@
+package com.anz.challenge.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Supplies the session tenant to Hibernate. {@code Order.tenant} is a {@code @TenantId}, so Hibernate stamps it on
+ * insert and adds {@code tenant_id = ?} to every query and load; no repository method can cross tenants.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+	@Override
+	public String resolveCurrentTenantIdentifier() {
+		return TenantContext.getTenant();
+	}
+
+	@Override
+	public boolean validateExistingCurrentSessions() {
+		return true;
+	}
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+	}
+}
@@ -0,0 +1,104 @@
+package com.anz.challenge.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Span exporter that appends one JSON object per finished span to a local file: a stand-in for a collector when
+ * investigating latency on a single instance. Lines carry the trace and parent ids, so a trace can be rebuilt with
+ * {@code grep <traceId>}; durations are in microseconds.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+	private static final Logger log = LoggerFactory.getLogger(FileSpanExporter.class);
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final BufferedWriter writer;
+
+	public FileSpanExporter(Path file) {
+		try {
+			if (file.toAbsolutePath().getParent() != null) {
+				Files.createDirectories(file.toAbsolutePath().getParent());
+			}
+			writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open span file " + file, e);
+		}
+		log.info("Writing trace spans to {}", file.toAbsolutePath());
+	}
+
+	@Override
+	public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+		try {
+			for (SpanData span : spans) {
+				writer.write(mapper.writeValueAsString(toJson(span)));
+				writer.newLine();
+			}
+			writer.flush();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			log.warn("Failed to write {} spans: {}", spans.size(), e.getMessage());
+			return CompletableResultCode.ofFailure();
+		}
+	}
+
+	private ObjectNode toJson(SpanData span) {
+		ObjectNode json = mapper.createObjectNode()
+				.put("traceId", span.getTraceId())
+				.put("spanId", span.getSpanId());
+		if (span.getParentSpanContext().isValid()) {
+			json.put("parentSpanId", span.getParentSpanId());
+		}
+		json.put("name", span.getName())
+				.put("kind", span.getKind().name())
+				.put("startEpochNanos", span.getStartEpochNanos())
+				.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000)
+				.put("status", span.getStatus().getStatusCode().name());
+		ObjectNode attributes = json.putObject("attributes");
+		span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+		if (!span.getEvents().isEmpty()) {
+			ArrayNode events = json.putArray("events");
+			for (EventData event : span.getEvents()) {
+				events.addObject().put("name", event.getName()).put("epochNanos", event.getEpochNanos());
+			}
+		}
+		return json;
+	}
+
+	@Override
+	public synchronized CompletableResultCode flush() {
+		try {
+			writer.flush();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			return CompletableResultCode.ofFailure();
+		}
+	}
+
+	@Override
+	public synchronized CompletableResultCode shutdown() {
+		try {
+			writer.close();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			return CompletableResultCode.ofFailure();
+		}
+	}
+}
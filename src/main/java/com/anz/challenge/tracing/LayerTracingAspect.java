@@ -0,0 +1,79 @@
+package com.anz.challenge.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a span (a Micrometer {@link Observation}) around every call into the controller, the order services and
+ * the repositories, named {@code Class.method} and tagged with its layer. Nested calls become child spans of the
+ * HTTP request span, so a slow request shows where its time went. It runs outside the transaction interceptor, so
+ * service spans include the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LayerTracingAspect {
+
+	@Autowired(required = false)
+	private ObservationRegistry observationRegistry;
+
+	// Repository beans are proxies: their spans are named after the application interface, e.g. OrderRepository
+	private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+	@Around("execution(public * com.anz.challenge.controller..*(..))")
+	public Object traceController(ProceedingJoinPoint call) throws Throwable {
+		return observe("controller", call);
+	}
+
+	@Around("execution(public * com.anz.challenge.service.OrderService.*(..)) "
+			+ "|| execution(public * com.anz.challenge.service.BulkOrderService.*(..))")
+	public Object traceService(ProceedingJoinPoint call) throws Throwable {
+		return observe("service", call);
+	}
+
+	@Around("execution(public * org.springframework.data.repository.Repository+.*(..)) "
+			+ "|| execution(public * com.anz.challenge.repository.ShardedOrderStore.*(..))")
+	public Object traceRepository(ProceedingJoinPoint call) throws Throwable {
+		return observe("repository", call);
+	}
+
+	private Object observe(String layer, ProceedingJoinPoint call) throws Throwable {
+		ObservationRegistry registry = observationRegistry;
+		if (registry == null || registry.isNoop()) {
+			return call.proceed();
+		}
+		String type = typeNames.computeIfAbsent(call.getThis().getClass(), LayerTracingAspect::typeName);
+		String method = call.getSignature().getName();
+		return Observation.createNotStarted("order." + layer, registry)
+				.contextualName(type + "." + method)
+				.lowCardinalityKeyValue("layer", layer)
+				.lowCardinalityKeyValue("class", type)
+				.lowCardinalityKeyValue("method", method)
+				.observeChecked((Observation.CheckedCallable<Object, Throwable>) call::proceed);
+	}
+
+	private static String typeName(Class<?> proxyType) {
+		if (Repository.class.isAssignableFrom(proxyType)) {
+			for (Class<?> candidate : proxyType.getInterfaces()) {
+				if (Repository.class.isAssignableFrom(candidate)) {
+					return candidate.getSimpleName();
+				}
+			}
+		}
+		// CGLIB proxies of our own classes, e.g. OrderService$$SpringCGLIB$$0
+		String name = proxyType.getSimpleName();
+		int marker = name.indexOf("$$");
+		return marker > 0 ? name.substring(0, marker) : name;
+	}
+}
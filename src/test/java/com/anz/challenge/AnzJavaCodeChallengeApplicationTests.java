@@ -3,7 +3,7 @@ package com.anz.challenge;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "order.journal.directory=target/context-test/journal")
 class AnzJavaCodeChallengeApplicationTests {
 
 	@Test
@@ -0,0 +1,106 @@
+package com.anz.challenge;
+
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.dto.BulkOrderViolation;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.service.BulkOrderService;
+import com.anz.challenge.service.OrderService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BulkOrderServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private BulkOrderService bulkOrderService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bulkOrderService, "chunkSize", 4);
+        ReflectionTestUtils.setField(bulkOrderService, "parallelism", 3);
+        bulkOrderService.init();
+        when(orderService.createBulkOrders(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkOrderService.shutdown();
+    }
+
+    @Test
+    void testAllValid() {
+        List<Order> orders = IntStream.range(0, 10).mapToObj(i -> new Order(null, "O" + i, null)).toList();
+
+        BulkOrderReport report = bulkOrderService.createOrders(orders);
+
+        assertEquals(10, report.created());
+        assertEquals(0, report.rejected());
+        assertTrue(report.violations().isEmpty());
+        assertEquals(Order.Status.CREATED, report.orders().get(0).getStatus());
+    }
+
+    @Test
+    void testCollectsViolationsPerIndexAcrossChunks() {
+        List<Order> orders = new ArrayList<>(IntStream.range(0, 10).mapToObj(i -> new Order(null, "O" + i, null)).toList());
+        orders.set(2, new Order(null, " ", Order.Status.CREATED));
+        orders.set(9, null);
+
+        BulkOrderReport report = bulkOrderService.createOrders(orders);
+
+        assertEquals(10, report.received());
+        assertEquals(8, report.created());
+        assertEquals(2, report.rejected());
+        assertTrue(report.isPartial());
+        assertEquals(List.of(new BulkOrderViolation(2, "description", "Description must not be empty"),
+                new BulkOrderViolation(9, "order", "Order must not be null")), report.violations());
+
+        // Valid orders keep their payload order
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderService).createBulkOrders(saved.capture());
+        assertEquals(List.of("O0", "O1", "O3", "O4", "O5", "O6", "O7", "O8"),
+                saved.getValue().stream().map(Order::getDescription).toList());
+    }
+
+    @Test
+    void testClientIdsAreNotPersisted() {
+        Order order = new Order(42L, "Existing", Order.Status.CREATED);
+        order.setVersion(3L);
+
+        BulkOrderReport report = bulkOrderService.createOrders(List.of(order));
+
+        assertNull(report.orders().get(0).getId());
+        assertNull(report.orders().get(0).getVersion());
+    }
+
+    @Test
+    void testNothingPersistedWhenAllRejected() {
+        BulkOrderReport report = bulkOrderService.createOrders(List.of(new Order(null, "", null)));
+
+        assertEquals(0, report.created());
+        assertEquals(1, report.rejected());
+        verify(orderService, never()).createBulkOrders(anyList());
+    }
+}
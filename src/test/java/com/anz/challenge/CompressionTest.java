@@ -0,0 +1,77 @@
+package com.anz.challenge;
+
+import com.anz.challenge.model.Order;
+import com.anz.challenge.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compression happens in Tomcat, so this runs against a real server rather than MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "ratelimit.enabled=false", "order.journal.directory=target/compression-test/journal" })
+class CompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void testOrderPageIsCompressedAndRevalidated() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken("admin");
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            orders.add(new Order(null, "Compressible order description number " + i, Order.Status.CREATED));
+        }
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(uri("/orders/bulkOrders"))
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(orders)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, created.statusCode(), created.body());
+
+        HttpResponse<byte[]> page = http.send(HttpRequest.newBuilder(uri("/orders?size=40"))
+                .header("Authorization", token)
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, page.statusCode());
+        assertEquals("gzip", page.headers().firstValue("Content-Encoding").orElse(null));
+        String etag = page.headers().firstValue("ETag").orElseThrow();
+        assertTrue(etag.startsWith("W/\""), etag);
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(page.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{") && json.contains("\"content\""), json);
+
+        HttpResponse<byte[]> revalidated = http.send(HttpRequest.newBuilder(uri("/orders?size=40"))
+                .header("Authorization", token)
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", etag)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(304, revalidated.statusCode());
+        assertEquals(0, revalidated.body().length);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,174 @@
+package com.anz.challenge;
+
+import com.anz.challenge.exception.IdempotencyConflictException;
+import com.anz.challenge.idempotency.IdempotencyStore;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import(TenantIdentifierResolver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<IdempotencyStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(IdempotencyStore::close);
+        jdbc.update("delete from idempotency_keys");
+    }
+
+    @Test
+    void testConcurrentDuplicatesExecuteOnce() throws Exception {
+        IdempotencyStore store = store(false);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ResponseEntity<Order>>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(pool.submit(() -> store.execute("createOrder", "k1", "payload", Order.class, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return ResponseEntity.ok(new Order(1L, "Created", Order.Status.CREATED));
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<Order>> call : calls) {
+                assertEquals(1L, call.get(5, TimeUnit.SECONDS).getBody().getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testPersistedResponseIsReplayedByAnotherInstance() {
+        IdempotencyStore first = store(true);
+        IdempotencyStore second = store(true);
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<Order> original = first.execute("createOrder", "k2", "payload", Order.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok(new Order(2L, "Created", Order.Status.CREATED));
+        });
+        ResponseEntity<Order> replay = second.execute("createOrder", "k2", "payload", Order.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok(new Order(3L, "Duplicate", Order.Status.CREATED));
+        });
+
+        assertEquals(1, executions.get());
+        assertNull(original.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(2L, replay.getBody().getId());
+        assertEquals("Created", replay.getBody().getDescription());
+    }
+
+    @Test
+    void testInProgressKeyConflictsAndFailuresAreNotStored() {
+        IdempotencyStore first = store(true);
+        IdempotencyStore second = store(true);
+
+        first.execute("createOrder", "k3", "payload", Order.class, () -> {
+            assertThrows(IdempotencyConflictException.class, () -> second.execute("createOrder", "k3", "payload",
+                    Order.class, () -> ResponseEntity.ok(new Order(4L, "Duplicate", Order.Status.CREATED))));
+            return ResponseEntity.ok(new Order(5L, "Created", Order.Status.CREATED));
+        });
+
+        assertThrows(IllegalStateException.class, () -> first.execute("createOrder", "k4", "payload", Order.class,
+                () -> { throw new IllegalStateException("database down"); }));
+        ResponseEntity<Order> retry = second.execute("createOrder", "k4", "payload", Order.class,
+                () -> ResponseEntity.ok(new Order(6L, "Retried", Order.Status.CREATED)));
+        assertEquals(6L, retry.getBody().getId());
+    }
+
+    @Test
+    void testStaleClaimIsTakenOverAndFailedCompletionStillSucceeds() {
+        IdempotencyStore first = store(true);
+        IdempotencyStore second = store(true);
+        // The instance that claimed k5 died before storing its response
+        jdbc.update("insert into idempotency_keys (key_id, request_hash, expires_at, claimed_at) values (?, ?, ?, ?)",
+                "default:createOrder:k5", "hash", Timestamp.valueOf(LocalDateTime.now().plusHours(1)),
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)));
+
+        ResponseEntity<Order> retried = first.execute("createOrder", "k5", "payload", Order.class,
+                () -> ResponseEntity.ok(new Order(7L, "Retried", Order.Status.CREATED)));
+        assertEquals(7L, retried.getBody().getId());
+        assertEquals(7L, second.execute("createOrder", "k5", "payload", Order.class,
+                () -> ResponseEntity.ok(new Order(8L, "Duplicate", Order.Status.CREATED))).getBody().getId());
+
+        // Storing the response fails after the action ran: the caller still gets its response
+        JdbcTemplate failingUpdates = new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.startsWith("update idempotency_keys")) {
+                    throw new IllegalStateException("connection lost");
+                }
+                return super.update(sql, args);
+            }
+        };
+        ReflectionTestUtils.setField(first, "jdbc", failingUpdates);
+        ResponseEntity<Order> created = first.execute("createOrder", "k6", "payload", Order.class,
+                () -> ResponseEntity.ok(new Order(9L, "Created", Order.Status.CREATED)));
+        assertEquals(9L, created.getBody().getId());
+        assertEquals("true", first.execute("createOrder", "k6", "payload", Order.class,
+                () -> ResponseEntity.ok(new Order(10L, "Duplicate", Order.Status.CREATED)))
+                .getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    private IdempotencyStore store(boolean persistent) {
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(store, "jdbc", jdbc);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(store, "maxKeys", 100);
+        ReflectionTestUtils.setField(store, "persistent", persistent);
+        ReflectionTestUtils.setField(store, "purgeIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(store, "claimLease", Duration.ofSeconds(60));
+        store.init();
+        stores.add(store);
+        return store;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.anz.challenge;
+
+import com.anz.challenge.profiling.JfrObservationHandler;
+import com.anz.challenge.profiling.JfrRecordingEndpoint;
+import com.anz.challenge.profiling.JwtValidationEvent;
+import com.anz.challenge.profiling.NotificationAttemptEvent;
+import com.anz.challenge.profiling.OrderOperationEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrProfilingTest {
+
+    @Test
+    void testObservationsBecomeJfrEvents(@TempDir Path dir) throws Exception {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new JfrObservationHandler());
+
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(OrderOperationEvent.class);
+            recording.enable(NotificationAttemptEvent.class);
+            recording.enable(JwtValidationEvent.class);
+            recording.start();
+
+            assertThrows(IllegalStateException.class, () -> Observation.createNotStarted("order.service", registry)
+                    .contextualName("OrderService.updateStatus")
+                    .lowCardinalityKeyValue("layer", "service")
+                    .observe(() -> {
+                        throw new IllegalStateException("boom");
+                    }));
+            Observation.createNotStarted("order.notification.attempt", registry)
+                    .contextualName("Email attempt")
+                    .lowCardinalityKeyValue("channel", "Email")
+                    .lowCardinalityKeyValue("attempt", "2")
+                    .highCardinalityKeyValue("order.id", "42")
+                    .observe(() -> { });
+            Observation.createNotStarted("order.jwt.authenticate", registry)
+                    .lowCardinalityKeyValue("valid", "true")
+                    .observe(() -> { });
+            // Not one of ours
+            Observation.createNotStarted("http.server.requests", registry).observe(() -> { });
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("com.anz.challenge."))
+                .toList();
+        assertEquals(3, events.size());
+
+        RecordedEvent operation = event(events, "com.anz.challenge.OrderOperation");
+        assertEquals("service", operation.getString("layer"));
+        assertEquals("OrderService.updateStatus", operation.getString("operation"));
+        assertTrue(operation.getBoolean("failed"));
+        assertTrue(operation.getString("error").contains("boom"));
+
+        RecordedEvent attempt = event(events, "com.anz.challenge.NotificationAttempt");
+        assertEquals("Email", attempt.getString("channel"));
+        assertEquals(42, attempt.getLong("orderId"));
+        assertEquals(2, attempt.getInt("attempt"));
+        assertFalse(attempt.getBoolean("failed"));
+
+        assertTrue(event(events, "com.anz.challenge.JwtValidation").getBoolean("valid"));
+    }
+
+    @Test
+    void testEndpointRunsOneRecordingAtATime(@TempDir Path dir) throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+        ReflectionTestUtils.setField(endpoint, "settings", "default");
+        ReflectionTestUtils.setField(endpoint, "directory", dir.toString());
+        ReflectionTestUtils.setField(endpoint, "maxDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(endpoint, "maxSizeMb", 16L);
+        ReflectionTestUtils.setField(endpoint, "maxRecordings", 5);
+        try {
+            Map<String, Object> started = endpoint.start(Duration.ofHours(1));
+            long id = (Long) started.get("id");
+            assertEquals("RUNNING", started.get("state"));
+            assertEquals("PT1M", started.get("duration"));
+            assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(null));
+            assertEquals(404, endpoint.download(id).getStatus());
+
+            WebEndpointResponse<Map<String, Object>> stopped = endpoint.stop(id);
+            assertEquals("CLOSED", stopped.getBody().get("state"));
+            Path file = Path.of((String) stopped.getBody().get("file"));
+            assertTrue(Files.size(file) > 0);
+            assertEquals(200, endpoint.download(id).getStatus());
+            assertEquals(404, endpoint.stop(id + 1000).getStatus());
+
+            // The finished recording stays listed, and a new one may start
+            endpoint.start(null);
+            assertEquals(2, endpoint.recordings().size());
+        } finally {
+            endpoint.close();
+        }
+    }
+
+    @Test
+    void testEndpointKeepsOnlyTheLastRecordings(@TempDir Path dir) throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+        ReflectionTestUtils.setField(endpoint, "settings", "default");
+        ReflectionTestUtils.setField(endpoint, "directory", dir.toString());
+        ReflectionTestUtils.setField(endpoint, "maxDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(endpoint, "maxSizeMb", 16L);
+        ReflectionTestUtils.setField(endpoint, "maxRecordings", 2);
+        try {
+            long first = (Long) endpoint.start(null).get("id");
+            Path firstFile = Path.of((String) endpoint.stop(first).getBody().get("file"));
+            long second = (Long) endpoint.start(null).get("id");
+            endpoint.stop(second);
+            assertTrue(Files.exists(firstFile));
+
+            long third = (Long) endpoint.start(null).get("id");
+            assertEquals(List.of(second, third), endpoint.recordings().stream().map(r -> r.get("id")).toList());
+            assertFalse(Files.exists(firstFile));
+            assertEquals(404, endpoint.download(first).getStatus());
+        } finally {
+            endpoint.close();
+        }
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.NativeHintsConfig;
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.error.ApiError;
+import com.anz.challenge.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setup() throws Exception {
+        for (Class<? extends RuntimeHintsRegistrar> registrar
+                : NativeHintsConfig.class.getAnnotation(ImportRuntimeHints.class).value()) {
+            var constructor = registrar.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            constructor.newInstance().registerHints(hints, getClass().getClassLoader());
+        }
+    }
+
+    @Test
+    void testEntityAndPayloadsAreReflective() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Order.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ApiError.class, "getMessage").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BulkOrderReport.class).test(hints));
+    }
+
+    @Test
+    void testJjwtImplementationIsReachable() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    void testSpringdocAssetsAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/5.2.0/index.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("notification.properties").test(hints));
+    }
+}
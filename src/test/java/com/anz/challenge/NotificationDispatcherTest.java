@@ -0,0 +1,183 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.NotificationConfig;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.service.NotificationDispatcher;
+import com.anz.challenge.service.NotificationDispatcher.Lane;
+import com.anz.challenge.service.NotificationDispatcher.Source;
+import com.anz.challenge.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+    private NotificationConfig config;
+
+    @BeforeEach
+    void setup() {
+        // Every notification takes 2 ms to deliver, one at a time
+        Executor slowChannel = CompletableFuture.delayedExecutor(2, TimeUnit.MILLISECONDS);
+        NotificationService notificationService = mock(NotificationService.class);
+        when(notificationService.notifyStatusChangeAsync(anyLong(), anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0) + ":" + invocation.getArgument(1));
+            peak.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            return CompletableFuture.runAsync(outstanding::decrementAndGet, slowChannel);
+        });
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "notificationService", notificationService);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+        config = new NotificationConfig();
+        config.apply(NotificationConfig.Source.ENVIRONMENT, Map.of(
+                "notification.dispatch.max-in-flight", "1",
+                "notification.lanes.cancellation.weight", "8",
+                "notification.lanes.interactive.weight", "4",
+                "notification.lanes.bulk.weight", "1"));
+        ReflectionTestUtils.setField(dispatcher, "config", config);
+        ReflectionTestUtils.setField(dispatcher, "enqueueTimeoutMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "cancellationCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "interactiveCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "bulkCapacity", 5000);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    void testLaneSelection() {
+        assertEquals(Lane.CANCELLATION, Lane.of(Order.Status.CANCELLED, Source.INTERACTIVE));
+        assertEquals(Lane.INTERACTIVE, Lane.of(Order.Status.COMPLETED, Source.INTERACTIVE));
+        assertEquals(Lane.BULK, Lane.of(Order.Status.CANCELLED, Source.BULK));
+    }
+
+    @Test
+    void testCancellationOvertakesMassImport() throws Exception {
+        List<Order> imported = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            imported.add(new Order(id, "IMPORT-" + id, Order.Status.CREATED));
+        }
+        dispatcher.submit(imported, Source.BULK);
+        waitFor(() -> sent.size() >= 10);
+
+        int sentBefore = sent.size();
+        dispatcher.submit(99999L, Order.Status.CANCELLED, Source.INTERACTIVE);
+        waitFor(() -> sent.contains("99999:CANCELLED"));
+
+        int position = sent.indexOf("99999:CANCELLED");
+        // Only the notification already in flight may go first
+        assertTrue(position <= sentBefore + 1, "Cancellation sent at position " + position + " with " + sentBefore
+                + " sent when it was queued");
+        assertTrue(dispatcher.depth(Lane.BULK) > 1000);
+        assertEquals(1, meterRegistry.get("orders.notification.lane.wait").tag("lane", "cancellation").timer().count());
+    }
+
+    @Test
+    void testLanesShareDispatchByWeight() throws Exception {
+        List<Order> imported = new ArrayList<>();
+        List<Order> interactive = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            imported.add(new Order(id, "IMPORT-" + id, Order.Status.CREATED));
+            interactive.add(new Order(1000 + id, "ORDER-" + id, Order.Status.COMPLETED));
+        }
+        dispatcher.submit(imported, Source.BULK);
+        dispatcher.submit(interactive, Source.INTERACTIVE);
+        waitFor(() -> sent.size() == 200);
+
+        // While both lanes are backlogged, interactive gets 4 of every 5 slots
+        List<String> window = new ArrayList<>(sent.subList(10, 60));
+        long interactiveSent = window.stream().filter(s -> s.endsWith(":COMPLETED")).count();
+        assertTrue(interactiveSent >= 35 && interactiveSent <= 45,
+                "Interactive share of 50 dispatches: " + interactiveSent);
+    }
+
+    @Test
+    void testReloadedSlotCountAppliesToRunningDispatcher() throws Exception {
+        List<Order> imported = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            imported.add(new Order(id, "IMPORT-" + id, Order.Status.CREATED));
+        }
+        dispatcher.submit(imported, Source.BULK);
+        waitFor(() -> sent.size() >= 10);
+        assertEquals(1, peak.get());
+
+        config.apply(NotificationConfig.Source.ENDPOINT, Map.of("notification.dispatch.max-in-flight", "8"));
+        waitFor(() -> peak.get() > 1);
+        assertTrue(peak.get() <= 8);
+
+        // Shrinking waits for the surplus notifications to complete, then holds the new limit
+        config.apply(NotificationConfig.Source.ENDPOINT, Map.of("notification.dispatch.max-in-flight", "2"));
+        int resized = sent.size();
+        waitFor(() -> sent.size() >= resized + 50);
+        peak.set(0);
+        int measured = sent.size();
+        waitFor(() -> sent.size() >= measured + 50);
+        assertTrue(peak.get() <= 2, "peak " + peak.get());
+    }
+
+    @Test
+    void testFullLaneDropsAndCountsRejection() {
+        ReflectionTestUtils.setField(dispatcher, "enqueueTimeoutMs", 1L);
+        List<Order> imported = new ArrayList<>();
+        for (long id = 1; id <= 6000; id++) {
+            imported.add(new Order(id, "IMPORT-" + id, Order.Status.CREATED));
+        }
+        dispatcher.submit(imported, Source.BULK);
+
+        double rejected = meterRegistry.get("orders.notification.lane.rejected").tag("lane", "bulk").counter().count();
+        assertTrue(rejected > 0);
+        assertEquals(Lane.values().length, meterRegistry.find("orders.notification.lane.depth").gauges().size());
+    }
+
+    @Test
+    void testBulkSubmitWaitsOnceForAFullLane() {
+        ReflectionTestUtils.setField(dispatcher, "enqueueTimeoutMs", 200L);
+        List<Order> imported = new ArrayList<>();
+        for (long id = 1; id <= 6000; id++) {
+            imported.add(new Order(id, "IMPORT-" + id, Order.Status.CREATED));
+        }
+
+        // About 1000 orders overflow the lane; waiting 200 ms for each would take minutes
+        long start = System.nanoTime();
+        dispatcher.submit(imported, Source.BULK);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(millis < 2000, "bulk submit blocked for " + millis + " ms");
+        assertTrue(meterRegistry.get("orders.notification.lane.rejected").tag("lane", "bulk").counter().count() > 0);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(1);
+        }
+    }
+}
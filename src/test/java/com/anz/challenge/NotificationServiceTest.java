@@ -0,0 +1,133 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.NotificationConfig;
+import com.anz.challenge.notification.HttpNotificationChannel;
+import com.anz.challenge.notification.NotificationChannel;
+import com.anz.challenge.service.NotificationService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceTest {
+
+    private WireMockServer stub;
+    private HttpClient client;
+
+    @BeforeEach
+    void setup() {
+        stub = new WireMockServer(options().dynamicPort());
+        stub.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop();
+    }
+
+    @Test
+    void testHttpChannelPostsNotification() {
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(202)));
+
+        channel("/email", 4).send(7L, "COMPLETED").join();
+
+        stub.verify(postRequestedFor(urlEqualTo("/email"))
+                .withHeader("Idempotency-Key", equalTo("7:COMPLETED"))
+                .withRequestBody(matchingJsonPath("$.orderId", equalTo("7")))
+                .withRequestBody(matchingJsonPath("$.status", equalTo("COMPLETED"))));
+    }
+
+    @Test
+    void testHttpChannelFailsOnErrorStatus() {
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(503)));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> channel("/email", 4).send(7L, "COMPLETED").join());
+        assertTrue(ex.getCause().getMessage().contains("returned 503"));
+    }
+
+    @Test
+    void testHttpChannelBoundsRequestsInFlight() throws Exception {
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(202).withFixedDelay(200)));
+        HttpNotificationChannel channel = channel("/email", 2);
+
+        // Sends return immediately; only two requests reach the stub at a time
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            sends.add(channel.send(id, "CREATED"));
+        }
+        assertTrue(channel.inFlight() <= 2);
+        assertTrue(channel.queued() >= 3);
+
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertEquals(0, channel.inFlight());
+        assertEquals(0, channel.queued());
+        stub.verify(6, postRequestedFor(urlEqualTo("/email")));
+    }
+
+    @Test
+    void testRetriesOnlyTheFailingChannel() {
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(202)));
+        stub.stubFor(post("/sms").inScenario("flaky").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503)).willSetStateTo("recovered"));
+        stub.stubFor(post("/sms").inScenario("flaky").whenScenarioStateIs("recovered")
+                .willReturn(aResponse().withStatus(202)));
+
+        NotificationService service = service(3, channel("/email", 4), channel("/sms", 4));
+        service.notifyStatusChangeAsync(1L, "CANCELLED").join();
+
+        stub.verify(1, postRequestedFor(urlEqualTo("/email")));
+        stub.verify(2, postRequestedFor(urlEqualTo("/sms")));
+    }
+
+    @Test
+    void testFailedNotificationCanBeSentAgain() {
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(503)));
+        NotificationService service = service(2, channel("/email", 4));
+
+        assertThrows(CompletionException.class, () -> service.notifyStatusChangeAsync(1L, "COMPLETED").join());
+        stub.verify(2, postRequestedFor(urlEqualTo("/email")));
+
+        // The idempotency key is released after the final failure, so the same change is not skipped later
+        stub.stubFor(post("/email").willReturn(aResponse().withStatus(202)));
+        service.notifyStatusChangeAsync(1L, "COMPLETED").join();
+        service.notifyStatusChangeAsync(1L, "COMPLETED").join();
+        stub.verify(3, postRequestedFor(urlEqualTo("/email")));
+    }
+
+    private HttpNotificationChannel channel(String path, int maxConcurrent) {
+        return new HttpNotificationChannel(path.substring(1), true, URI.create(stub.baseUrl() + path), client,
+                Duration.ofSeconds(2), maxConcurrent);
+    }
+
+    private static NotificationService service(int maxAttempts, NotificationChannel... channels) {
+        NotificationConfig config = new NotificationConfig();
+        config.apply(NotificationConfig.Source.ENVIRONMENT, Map.of(
+                "notification.retry.max-attempts", String.valueOf(maxAttempts),
+                "notification.retry.backoff-ms", "10",
+                "notification.retry.multiplier", "2",
+                "notification.retry.max-backoff-ms", "100"));
+
+        NotificationService service = new NotificationService();
+        ReflectionTestUtils.setField(service, "config", config);
+        ReflectionTestUtils.setField(service, "channels", List.of(channels));
+        return service;
+    }
+}
@@ -0,0 +1,92 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.NotificationConfig;
+import com.anz.challenge.config.NotificationConfigWatcher;
+import com.anz.challenge.config.NotificationSettings;
+import com.anz.challenge.config.NotificationSettingsEndpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationSettingsTest {
+
+    @Test
+    void testRejectsUnknownAndInvalidProperties() {
+        NotificationSettings settings = NotificationSettings.DEFAULTS.with(Map.of(
+                "notification.sms.enabled", "true",
+                "notification.retry.max-attempts", " 5 "));
+        assertTrue(settings.smsEnabled());
+        assertEquals(5, settings.retryMaxAttempts());
+        assertEquals(NotificationSettings.DEFAULTS.retryBackoffMs(), settings.retryBackoffMs());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> settings.with(Map.of("notification.retry.max-atempts", "5")));
+        assertThrows(IllegalArgumentException.class, () -> settings.with(Map.of("notification.sms.enabled", "yes")));
+        assertThrows(IllegalArgumentException.class,
+                () -> settings.with(Map.of("notification.dispatch.max-in-flight", "0")));
+        assertThrows(IllegalArgumentException.class,
+                () -> settings.with(Map.of("notification.retry.max-backoff-ms", "10")));
+    }
+
+    @Test
+    void testSourcesAreLayeredAndInvalidReloadsKeepTheCurrentSnapshot() {
+        NotificationConfig config = new NotificationConfig();
+        config.apply(NotificationConfig.Source.ENVIRONMENT, Map.of("notification.retry.max-attempts", "4",
+                "notification.email.max-concurrent", "10"));
+        config.apply(NotificationConfig.Source.ENDPOINT, Map.of("notification.retry.max-attempts", "1"));
+        config.apply(NotificationConfig.Source.FILE, Map.of("notification.retry.max-attempts", "2",
+                "notification.email.enabled", "false"));
+
+        NotificationSettings current = config.settings();
+        assertEquals(1, current.retryMaxAttempts());
+        assertFalse(current.emailEnabled());
+        assertEquals(10, current.emailMaxConcurrent());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> config.apply(NotificationConfig.Source.FILE, Map.of("notification.retry.multiplier", "0.5")));
+        assertSame(current, config.settings());
+        assertEquals("2", config.overrides(NotificationConfig.Source.FILE).get("notification.retry.max-attempts"));
+
+        NotificationSettingsEndpoint endpoint = new NotificationSettingsEndpoint();
+        ReflectionTestUtils.setField(endpoint, "config", config);
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> endpoint.override("notification.sms.max-concurrent", "-1"));
+        endpoint.override("notification.retry.max-attempts", null);
+        assertEquals(2, config.settings().retryMaxAttempts());
+    }
+
+    @Test
+    void testWatcherAppliesFileChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("notification-overrides.properties");
+        NotificationConfig config = new NotificationConfig();
+        NotificationConfigWatcher watcher = new NotificationConfigWatcher();
+        ReflectionTestUtils.setField(watcher, "config", config);
+        ReflectionTestUtils.setField(watcher, "file", file.toString());
+
+        assertFalse(watcher.check());
+        Files.writeString(file, "notification.email.enabled=false\nnotification.lanes.bulk.weight=3\n");
+        assertTrue(watcher.check());
+        assertFalse(watcher.check());
+        assertFalse(config.settings().emailEnabled());
+        assertEquals(3, config.settings().bulkWeight());
+
+        // A broken edit is ignored until the file is fixed
+        Files.writeString(file, "notification.lanes.bulk.weight=many\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(1)));
+        assertFalse(watcher.check());
+        assertEquals(3, config.settings().bulkWeight());
+
+        Files.delete(file);
+        assertTrue(watcher.check());
+        assertEquals(NotificationSettings.DEFAULTS, config.settings());
+    }
+}
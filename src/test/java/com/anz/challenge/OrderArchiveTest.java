@@ -0,0 +1,114 @@
+package com.anz.challenge;
+
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.service.OrderArchive;
+import com.anz.challenge.service.OrderReadCoalescer;
+import com.anz.challenge.tenant.TenantContext;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({ OrderArchive.class, OrderReadCoalescer.class, TenantIdentifierResolver.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiveTest {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderArchive archive;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from orders_archive");
+        jdbc.update("delete from orders");
+        TenantContext.clear();
+    }
+
+    @Test
+    void testMovesOldTerminalOrdersInBatches() {
+        ReflectionTestUtils.setField(archive, "minAge", Duration.ofDays(7));
+        ReflectionTestUtils.setField(archive, "batchSize", 1);
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        Order open = save("Open", Order.Status.CREATED, old);
+        Order completed = save("Completed", Order.Status.COMPLETED, old);
+        Order cancelled = save("Cancelled", Order.Status.CANCELLED, old);
+        Order recent = save("Recent", Order.Status.COMPLETED, LocalDateTime.now());
+        TenantContext.setTenant("wholesale");
+        save("Other tenant", Order.Status.COMPLETED, old);
+        TenantContext.clear();
+
+        assertEquals(3, archive.archive());
+        assertEquals(0, archive.archive());
+
+        assertEquals(List.of(open.getId(), recent.getId()),
+                repository.findAll().stream().map(Order::getId).sorted().toList());
+        Order archived = archive.findById(completed.getId()).orElseThrow();
+        assertEquals("Completed", archived.getDescription());
+        assertEquals(completed.getVersion(), archive.findVersionById(completed.getId()).orElseThrow());
+        assertEquals(List.of(cancelled.getId()),
+                archive.findByStatus(Order.Status.CANCELLED).stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void testSearchContinuesIntoArchive() {
+        ReflectionTestUtils.setField(archive, "minAge", Duration.ofDays(7));
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        save("Hot 1", Order.Status.CREATED, old);
+        save("Hot 2", Order.Status.COMPLETED, LocalDateTime.now());
+        save("Cold 1", Order.Status.COMPLETED, old);
+        save("Cold 2", Order.Status.CANCELLED, old);
+        archive.archive();
+
+        Page<Order> first = archive.appendTo(repository.findAll(PageRequest.of(0, 3)), null, PageRequest.of(0, 3));
+        assertEquals(4, first.getTotalElements());
+        // Hot rows come first, in whatever order the hot query returns them
+        List<String> descriptions = first.getContent().stream().map(Order::getDescription).toList();
+        assertEquals(List.of("Hot 1", "Hot 2"), descriptions.subList(0, 2).stream().sorted().toList());
+        assertEquals("Cold 1", descriptions.get(2));
+
+        Page<Order> second = archive.appendTo(repository.findAll(PageRequest.of(1, 3)), null, PageRequest.of(1, 3));
+        assertEquals(List.of("Cold 2"), second.getContent().stream().map(Order::getDescription).toList());
+
+        Page<Order> completed = archive.appendTo(repository.findByStatus(Order.Status.COMPLETED, PageRequest.of(0, 10)),
+                Order.Status.COMPLETED, PageRequest.of(0, 10));
+        assertEquals(2, completed.getTotalElements());
+
+        // Counts are cached until the archiver runs again
+        jdbc.update("delete from orders_archive where description = 'Cold 2'");
+        assertEquals(4, archive.appendTo(repository.findAll(PageRequest.of(0, 3)), null, PageRequest.of(0, 3))
+                .getTotalElements());
+        archive.archive();
+        assertEquals(3, archive.appendTo(repository.findAll(PageRequest.of(0, 3)), null, PageRequest.of(0, 3))
+                .getTotalElements());
+    }
+
+    private Order save(String description, Order.Status status, LocalDateTime createdAt) {
+        Order order = new Order(null, description, status);
+        order.setCreatedAt(createdAt);
+        return repository.save(order);
+    }
+}
@@ -1,12 +1,25 @@
 package com.anz.challenge;
 
 import com.anz.challenge.controller.OrderController;
+import com.anz.challenge.idempotency.IdempotencyStore;
 import com.anz.challenge.model.Order;
+import com.anz.challenge.ratelimit.RateLimitFilter;
 import com.anz.challenge.security.JwtFilter;
 import com.anz.challenge.security.JwtUtil;
+import com.anz.challenge.dto.BulkOrderReport;
+import com.anz.challenge.dto.BulkOrderViolation;
+import com.anz.challenge.dto.OrderField;
+import com.anz.challenge.dto.OrderFields;
+import com.anz.challenge.dto.SlimPage;
+import com.anz.challenge.service.BulkOrderService;
 import com.anz.challenge.service.NotificationService;
+import com.anz.challenge.service.OrderExportService;
+import com.anz.challenge.service.OrderProjectionService;
 import com.anz.challenge.service.OrderService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -15,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,10 +37,23 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +65,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         }
 )
 @AutoConfigureMockMvc(addFilters = false)
+@Import(IdempotencyStore.class)
 public class OrderControllerTest {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderControllerTest.class);
@@ -51,15 +79,27 @@ public class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private BulkOrderService bulkOrderService;
+
     @MockBean
     private NotificationService notificationService;
 
+    @MockBean
+    private OrderExportService exportService;
+
+    @MockBean
+    private OrderProjectionService projectionService;
+
     @MockBean
     private JwtUtil jwtUtil;
 
     @MockBean
     private JwtFilter jwtFilter;
 
+    @MockBean
+    private RateLimitFilter rateLimitFilter;
+
     @BeforeEach
     void setup() {
         logger.info("Setting up mocks before each test");
@@ -138,4 +178,213 @@ public class OrderControllerTest {
         String responseJson = result.getResponse().getContentAsString();
         logger.info("testSearchOrders - Output: {}", responseJson);
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testCreateOrderCbor() throws Exception {
+        Order savedOrder = new Order(1L, "Test Order", Order.Status.CREATED);
+        when(orderService.createOrder(any(Order.class))).thenReturn(savedOrder);
+
+        CBORMapper cborMapper = new CBORMapper();
+        byte[] request = cborMapper.writeValueAsBytes(new Order(null, "Test Order", Order.Status.CREATED));
+
+        MvcResult result = mockMvc.perform(post("/orders")
+                        .content(request)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode response = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        logger.info("testCreateOrderCbor - Output: {}", response);
+        assertEquals(1L, response.get("id").asLong());
+        assertEquals("CREATED", response.get("status").asText());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testCreateOrderCborValidation() throws Exception {
+        byte[] request = new CBORMapper().writeValueAsBytes(new Order(null, "", Order.Status.CREATED));
+
+        mockMvc.perform(post("/orders")
+                        .content(request)
+                        .contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testSearchOrdersSmile() throws Exception {
+        Order order1 = new Order(1L, "Order 1", Order.Status.CREATED);
+        Page<Order> page = new PageImpl<>(Arrays.asList(order1), PageRequest.of(0, 10), 1);
+        when(orderService.searchOrders(null, PageRequest.of(0, 10))).thenReturn(page);
+
+        MvcResult result = mockMvc.perform(get("/orders")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode response = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        logger.info("testSearchOrdersSmile - Output: {}", response);
+        assertEquals(1, response.get("totalElements").asInt());
+        assertEquals("Order 1", response.get("content").get(0).get("description").asText());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testSearchOrdersWithSelectedFields() throws Exception {
+        EnumSet<OrderField> fields = EnumSet.of(OrderField.ID, OrderField.STATUS);
+        SlimPage<OrderFields> page = new SlimPage<>(
+                List.of(new OrderFields(1L, "CREATED", null, null, 0L)), 0, 10, 1);
+        when(projectionService.findPage(eq("default"), isNull(), eq(fields), eq(PageRequest.of(0, 10))))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/orders").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().json("{\"content\":[{\"id\":1,\"status\":\"CREATED\"}],"
+                        + "\"page\":0,\"size\":10,\"totalElements\":1}", true));
+
+        mockMvc.perform(get("/orders").param("fields", "id,price"))
+                .andExpect(status().isBadRequest());
+        verify(orderService, never()).searchOrders(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testGetOrderNotModified() throws Exception {
+        when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/orders/1")
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"1-3\""));
+
+        verify(orderService, never()).getOrder(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testGetOrderModifiedSinceETag() throws Exception {
+        Order savedOrder = new Order(1L, "Test Order", Order.Status.COMPLETED);
+        savedOrder.setVersion(4L);
+        when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(4L));
+        when(orderService.getOrder(1L)).thenReturn(Optional.of(savedOrder));
+
+        mockMvc.perform(get("/orders/1")
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-4\""))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testSearchOrdersNotModified() throws Exception {
+        Page<Order> page = new PageImpl<>(Arrays.asList(new Order(1L, "Order 1", Order.Status.CREATED)),
+                PageRequest.of(0, 10), 1);
+        when(orderService.searchOrders(null, PageRequest.of(0, 10))).thenReturn(page);
+
+        String etag = mockMvc.perform(get("/orders"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/orders").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testCreateOrdersPartialSuccess() throws Exception {
+        Order created = new Order(1L, "Order 1", Order.Status.CREATED);
+        BulkOrderReport report = new BulkOrderReport(2, 1, 1, List.of(created),
+                List.of(new BulkOrderViolation(1, "description", "Description must not be empty")));
+        when(bulkOrderService.createOrders(anyList())).thenReturn(report);
+
+        String requestJson = objectMapper.writeValueAsString(List.of(
+                new Order(null, "Order 1", Order.Status.CREATED),
+                new Order(null, "", Order.Status.CREATED)));
+
+        MvcResult result = mockMvc.perform(post("/orders/bulkOrders")
+                        .content(requestJson)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.violations[0].index").value(1))
+                .andExpect(jsonPath("$.violations[0].field").value("description"))
+                .andReturn();
+
+        logger.info("testCreateOrdersPartialSuccess - Output: {}", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testExportStreamsGzippedCsv() throws Exception {
+        when(exportService.exportCsv(any(), eq(Order.Status.CREATED), isNull(), isNull(), any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    Writer writer = invocation.getArgument(4);
+                    writer.write("id,description,status,created_at,version\n1,Test Order,CREATED,2024-01-01T00:00,0\n");
+                    return new OrderExportService.ExportResult(1, 5);
+                });
+
+        MvcResult result = mockMvc.perform(get("/orders/export")
+                        .param("status", "CREATED")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn();
+
+        try (GZIPInputStream csv = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String body = new String(csv.readAllBytes(), StandardCharsets.UTF_8);
+            logger.info("testExportStreamsGzippedCsv - Output: {}", body);
+            assertEquals(2, body.lines().count());
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testExportHonoursRefusedGzip() throws Exception {
+        when(exportService.exportCsv(any(), isNull(), isNull(), isNull(), any(Writer.class)))
+                .thenAnswer(invocation -> {
+                    Writer writer = invocation.getArgument(4);
+                    writer.write("id,description,status,created_at,version\n");
+                    return new OrderExportService.ExportResult(0, 1);
+                });
+
+        mockMvc.perform(get("/orders/export").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("id,description,status,created_at,version\n"));
+        mockMvc.perform(get("/orders/export").header("Accept-Encoding", "br;q=1.0, *;q=0.5"))
+                .andExpect(header().string("Content-Encoding", "gzip"));
+        mockMvc.perform(get("/orders/export").header("Accept-Encoding", "GZIP;Q=0.0, *"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER"})
+    public void testCreateOrderReplaysIdempotentRetry() throws Exception {
+        when(orderService.createOrder(any(Order.class))).thenReturn(new Order(7L, "Test Order", Order.Status.CREATED));
+        String requestJson = objectMapper.writeValueAsString(new Order(null, "Test Order", Order.Status.CREATED));
+
+        mockMvc.perform(post("/orders").header("Idempotency-Key", "retry-1")
+                        .content(requestJson).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/orders").header("Idempotency-Key", "retry-1")
+                        .content(requestJson).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(7));
+        verify(orderService, times(1)).createOrder(any(Order.class));
+
+        String otherJson = objectMapper.writeValueAsString(new Order(null, "Other Order", Order.Status.CREATED));
+        mockMvc.perform(post("/orders").header("Idempotency-Key", "retry-1")
+                        .content(otherJson).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
 }
@@ -0,0 +1,108 @@
+package com.anz.challenge;
+
+import com.anz.challenge.journal.OrderEvent;
+import com.anz.challenge.journal.OrderEventJournal;
+import com.anz.challenge.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendAndReadBack() throws Exception {
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 16, 4, 8, 1000)) {
+            journal.recordCreated(new Order(1L, "O1", Order.Status.CREATED));
+            journal.recordStatusChange(new Order(1L, "O1", Order.Status.COMPLETED), Order.Status.CREATED);
+
+            List<OrderEvent> events = journal.read(0, 10);
+
+            assertEquals(2, events.size());
+            assertEquals(OrderEvent.Type.CREATED, events.get(0).type());
+            assertNull(events.get(0).previousStatus());
+            assertEquals(OrderEvent.Type.STATUS_CHANGED, events.get(1).type());
+            assertEquals(1L, events.get(1).orderId());
+            assertEquals(Order.Status.CREATED, events.get(1).previousStatus());
+            assertEquals(Order.Status.COMPLETED, events.get(1).status());
+            assertEquals(1, events.get(1).offset());
+        }
+    }
+
+    @Test
+    void testReplayFromOffsetAcrossSegments() throws Exception {
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 4, 10, 2, 1000)) {
+            for (long id = 1; id <= 10; id++) {
+                journal.recordCreated(new Order(id, "O" + id, Order.Status.CREATED));
+            }
+
+            List<OrderEvent> events = journal.read(3, 5);
+
+            assertEquals(List.of(4L, 5L, 6L, 7L, 8L), events.stream().map(OrderEvent::orderId).toList());
+            assertEquals(10, journal.replay(8, 100, e -> { }));
+        }
+    }
+
+    @Test
+    void testRetentionDeletesOldestSegments() throws Exception {
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 4, 2, 2, 1000)) {
+            for (long id = 1; id <= 10; id++) {
+                journal.recordCreated(new Order(id, "O" + id, Order.Status.CREATED));
+            }
+
+            assertEquals(4, journal.firstOffset());
+            assertEquals(2, countSegments());
+            // Offsets that were rolled away are skipped
+            assertEquals(5L, journal.read(0, 1).get(0).orderId());
+        }
+    }
+
+    @Test
+    void testReopenRecoversWritePosition() throws Exception {
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 8, 4, 100, 1000)) {
+            for (long id = 1; id <= 5; id++) {
+                journal.recordCreated(new Order(id, "O" + id, Order.Status.CREATED));
+            }
+        }
+
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 8, 4, 100, 1000)) {
+            assertEquals(5, journal.nextOffset());
+            assertEquals(5, journal.recordCreated(new Order(6L, "O6", Order.Status.CREATED)));
+            assertEquals(6, journal.read(0, 100).size());
+        }
+    }
+
+    @Test
+    void testDirectoryIsOwnedByOneJournal() throws Exception {
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 8, 4, 100, 1000)) {
+            assertThrows(IllegalStateException.class, () -> OrderEventJournal.open(dir, 8, 4, 100, 1000));
+            assertEquals(0, journal.recordCreated(new Order(1L, "O1", Order.Status.CREATED)));
+        }
+        // Released on close
+        try (OrderEventJournal journal = OrderEventJournal.open(dir, 8, 4, 100, 1000)) {
+            assertEquals(1, journal.nextOffset());
+        }
+    }
+
+    @Test
+    void testDisabledJournalIgnoresAppends() {
+        OrderEventJournal journal = OrderEventJournal.disabled();
+
+        assertEquals(-1, journal.recordCreated(new Order(1L, "O1", Order.Status.CREATED)));
+        assertTrue(journal.read(0, 10).isEmpty());
+    }
+
+    private long countSegments() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> !file.getFileName().toString().equals("journal.lock")).count();
+        }
+    }
+}
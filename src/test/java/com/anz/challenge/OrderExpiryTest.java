@@ -0,0 +1,127 @@
+package com.anz.challenge;
+
+import com.anz.challenge.journal.OrderEventJournal;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.search.OrderSearchIndex;
+import com.anz.challenge.service.NotificationDispatcher;
+import com.anz.challenge.service.OrderExpiry;
+import com.anz.challenge.service.OrderReadCoalescer;
+import com.anz.challenge.tenant.TenantContext;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({ OrderExpiry.class, OrderReadCoalescer.class, TenantIdentifierResolver.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExpiryTest {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderExpiry expiry;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockBean
+    private OrderEventJournal journal;
+
+    @MockBean
+    private OrderSearchIndex searchIndex;
+
+    @MockBean
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(expiry, "enabled", true);
+        ReflectionTestUtils.setField(expiry, "after", Duration.ofHours(1));
+        ReflectionTestUtils.setField(expiry, "tickMs", 3_600_000L); // no background ticks during the test
+    }
+
+    @AfterEach
+    void tearDown() {
+        expiry.close();
+        jdbc.update("delete from orders");
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExpiresStaleCreatedOrdersInEveryTenant() {
+        LocalDateTime old = LocalDateTime.now().minusHours(2);
+        Order stale = save("Stale", Order.Status.CREATED, old);
+        Order completed = save("Completed", Order.Status.COMPLETED, old);
+        Order recent = save("Recent", Order.Status.CREATED, LocalDateTime.now());
+        TenantContext.setTenant("wholesale");
+        Order otherTenant = save("Other tenant", Order.Status.CREATED, old);
+        TenantContext.clear();
+
+        expiry.start();
+        assertEquals(3, expiry.pending());
+        assertEquals(2, expiry.expireDue());
+        assertEquals(0, expiry.expireDue());
+        assertEquals(1, expiry.pending());
+
+        assertEquals("CANCELLED", statusOf(stale.getId()));
+        assertEquals("CANCELLED", statusOf(otherTenant.getId()));
+        assertEquals("COMPLETED", statusOf(completed.getId()));
+        assertEquals("CREATED", statusOf(recent.getId()));
+        assertEquals(stale.getVersion() + 1,
+                jdbc.queryForObject("select version from orders where id = ?", Long.class, stale.getId()));
+
+        verify(journal, times(2)).recordStatusChange(any(Order.class), eq(Order.Status.CREATED));
+        verify(notificationDispatcher).submit(argThat((List<Order> orders) -> orders.size() == 2
+                && orders.stream().allMatch(o -> o.getStatus() == Order.Status.CANCELLED)),
+                eq(NotificationDispatcher.Source.BULK));
+    }
+
+    @Test
+    void testSkipsOrdersThatChangedBeforeTheirDeadline() {
+        Order order = save("Completed in time", Order.Status.CREATED, LocalDateTime.now().minusHours(2));
+        expiry.start();
+        jdbc.update("update orders set status = 'COMPLETED' where id = ?", order.getId());
+
+        // Created here after startup, already past its deadline
+        Order late = save("Late", Order.Status.CREATED, LocalDateTime.now().minusHours(3));
+        expiry.schedule(List.of(late));
+
+        assertEquals(1, expiry.expireDue());
+        assertEquals("COMPLETED", statusOf(order.getId()));
+        assertEquals("CANCELLED", statusOf(late.getId()));
+        verify(searchIndex).index(argThat(orders -> orders.size() == 1));
+    }
+
+    private Order save(String description, Order.Status status, LocalDateTime createdAt) {
+        Order order = new Order(null, description, status);
+        order.setCreatedAt(createdAt);
+        return repository.save(order);
+    }
+
+    private String statusOf(Long id) {
+        return jdbc.queryForObject("select status from orders where id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,81 @@
+package com.anz.challenge;
+
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.service.OrderExportService;
+import com.anz.challenge.tenant.TenantContext;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({ OrderExportService.class, TenantIdentifierResolver.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from orders_archive");
+        jdbc.update("delete from orders");
+        TenantContext.clear();
+    }
+
+    @Test
+    void testStreamsFilteredOrdersAsCsv() {
+        Order first = save("Plain", Order.Status.CREATED, BASE.plusMinutes(2));
+        Order quoted = save("Chairs, \"ergonomic\"", Order.Status.CREATED, BASE.plusMinutes(1));
+        save("Done", Order.Status.COMPLETED, BASE.plusMinutes(3));
+        save("Too late", Order.Status.CREATED, BASE.plusDays(1));
+        jdbc.update("insert into orders_archive (id, tenant_id, description, status, created_at, version, archived_at) "
+                + "values (999, 'default', 'Archived', 'COMPLETED', ?, 1, ?)", BASE, BASE);
+        TenantContext.setTenant("wholesale");
+        save("Other tenant", Order.Status.CREATED, BASE);
+        TenantContext.clear();
+
+        StringWriter created = new StringWriter();
+        OrderExportService.ExportResult result = exportService.exportCsv(TenantContext.DEFAULT_TENANT,
+                Order.Status.CREATED, BASE, BASE.plusHours(1), created);
+
+        assertEquals(2, result.rows());
+        assertEquals(List.of(
+                "id,description,status,created_at,version",
+                quoted.getId() + ",\"Chairs, \"\"ergonomic\"\"\",CREATED,2024-01-01T00:01,0",
+                first.getId() + ",Plain,CREATED,2024-01-01T00:02,0"), created.toString().lines().toList());
+
+        StringWriter all = new StringWriter();
+        assertEquals(5, exportService.exportCsv(TenantContext.DEFAULT_TENANT, null, null, null, all).rows());
+        assertTrue(all.toString().strip().endsWith("999,Archived,COMPLETED,2024-01-01T00:00,1"));
+    }
+
+    private Order save(String description, Order.Status status, LocalDateTime createdAt) {
+        Order order = new Order(null, description, status);
+        order.setCreatedAt(createdAt);
+        return repository.save(order);
+    }
+}
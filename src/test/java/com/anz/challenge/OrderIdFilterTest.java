@@ -0,0 +1,102 @@
+package com.anz.challenge;
+
+import com.anz.challenge.concurrent.ConcurrentBitSet;
+import com.anz.challenge.service.OrderIdFilter;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({ OrderIdFilter.class, TenantIdentifierResolver.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdFilterTest {
+
+    @Autowired
+    private OrderIdFilter filter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        filter.close();
+        jdbc.update("delete from orders_archive");
+        jdbc.update("delete from orders");
+    }
+
+    @Test
+    void testRejectsOnlyMissingIdsBelowWatermark() {
+        insert("orders", 1);
+        insert("orders", 2);
+        insert("orders_archive", 5);
+        ReflectionTestUtils.setField(filter, "grace", Duration.ZERO);
+        ReflectionTestUtils.setField(filter, "refreshMs", 60_000L);
+        filter.start();
+
+        // Nothing is rejected until a scan is older than the grace period
+        assertTrue(filter.mightExist(3));
+        filter.refresh();
+        assertTrue(filter.mightExist(1));
+        assertTrue(filter.mightExist(5));
+        assertFalse(filter.mightExist(3));
+        assertFalse(filter.mightExist(-1));
+        assertTrue(filter.mightExist(6)); // above the watermark: unknown
+
+        // Orders created by another instance are picked up by the next scans before the watermark passes them
+        insert("orders", 6);
+        insert("orders", 8);
+        assertTrue(filter.mightExist(7));
+        filter.refresh();
+        filter.refresh();
+        assertTrue(filter.mightExist(6));
+        assertTrue(filter.mightExist(8));
+        assertFalse(filter.mightExist(7));
+    }
+
+    @Test
+    void testWatermarkWaitsForGracePeriod() {
+        insert("orders", 1);
+        ReflectionTestUtils.setField(filter, "grace", Duration.ofHours(1));
+        ReflectionTestUtils.setField(filter, "refreshMs", 60_000L);
+        filter.start();
+        filter.refresh();
+
+        // A transaction that allocated a low id could still commit, so nothing is rejected yet
+        assertTrue(filter.mightExist(1));
+        assertTrue(filter.mightExist(2));
+    }
+
+    @Test
+    void testBitSetGrowsSparsely() {
+        ConcurrentBitSet bits = new ConcurrentBitSet();
+        assertTrue(bits.set(3));
+        assertFalse(bits.set(3));
+        assertTrue(bits.set(10L * ConcurrentBitSet.PAGE_BITS + 7));
+        assertTrue(bits.get(3));
+        assertTrue(bits.get(10L * ConcurrentBitSet.PAGE_BITS + 7));
+        assertFalse(bits.get(4));
+        assertFalse(bits.get(100L * ConcurrentBitSet.PAGE_BITS));
+        // Two pages allocated, not eleven
+        assertTrue(bits.memoryBytes() < 3L * ConcurrentBitSet.PAGE_BITS / 8);
+    }
+
+    private void insert(String table, long id) {
+        jdbc.update("insert into " + table + " (id, tenant_id, description, status, created_at, version"
+                + ("orders_archive".equals(table) ? ", archived_at" : "") + ") values (?, 'default', 'Order', 'CREATED', "
+                + "current_timestamp, 0" + ("orders_archive".equals(table) ? ", current_timestamp" : "") + ")", id);
+    }
+}
@@ -0,0 +1,104 @@
+package com.anz.challenge;
+
+import com.anz.challenge.dto.OrderField;
+import com.anz.challenge.dto.OrderFields;
+import com.anz.challenge.dto.SlimPage;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.service.OrderProjectionService;
+import com.anz.challenge.tenant.TenantContext;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import({ OrderProjectionService.class, TenantIdentifierResolver.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderProjectionServiceTest {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private OrderProjectionService projections;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from orders_archive");
+        jdbc.update("delete from orders");
+        TenantContext.clear();
+    }
+
+    @Test
+    void testPagesSelectedFieldsAcrossHotAndArchivedOrders() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(repository.save(new Order(null, "Hot " + i, Order.Status.COMPLETED)).getId());
+        }
+        archive(100, "Archived", "COMPLETED");
+        archive(101, "Archived", "CANCELLED");
+        TenantContext.setTenant("wholesale");
+        repository.save(new Order(null, "Other tenant", Order.Status.COMPLETED));
+        TenantContext.clear();
+
+        Set<OrderField> fields = OrderField.parse("status");
+        SlimPage<OrderFields> first = projections.findPage("default", null, fields, PageRequest.of(0, 2));
+        SlimPage<OrderFields> second = projections.findPage("default", null, fields, PageRequest.of(1, 2));
+        SlimPage<OrderFields> third = projections.findPage("default", null, fields, PageRequest.of(2, 2));
+        assertEquals(5, first.totalElements());
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(2), 100L, 101L),
+                Stream.of(first, second, third).flatMap(p -> p.content().stream())
+                        .map(OrderFields::id).toList());
+        OrderFields row = first.content().get(0);
+        assertEquals("COMPLETED", row.status());
+        assertNull(row.description());
+        assertNull(row.createdAt());
+
+        SlimPage<OrderFields> cancelled = projections.findPage("default", Order.Status.CANCELLED,
+                EnumSet.allOf(OrderField.class), PageRequest.of(0, 10));
+        assertEquals(1, cancelled.totalElements());
+        assertEquals("Archived", cancelled.content().get(0).description());
+        assertNotNull(cancelled.content().get(0).createdAt());
+    }
+
+    @Test
+    void testStreamsOneStatusWithSelectedFields() {
+        Order open = repository.save(new Order(null, "Open", Order.Status.CREATED));
+        repository.save(new Order(null, "Done", Order.Status.COMPLETED));
+        archive(100, "Archived", "COMPLETED");
+
+        List<OrderFields> created = projections.findByStatus("default", Order.Status.CREATED,
+                EnumSet.of(OrderField.ID));
+        assertEquals(List.of(new OrderFields(open.getId(), null, null, null, 0L)), created);
+        assertEquals(2, projections.findByStatus("default", Order.Status.COMPLETED, OrderField.parse("id")).size());
+        assertTrue(projections.findByStatus("wholesale", Order.Status.CREATED, OrderField.parse("id")).isEmpty());
+    }
+
+    private void archive(long id, String description, String status) {
+        jdbc.update("insert into orders_archive (id, tenant_id, description, status, created_at, version, archived_at) "
+                + "values (?, 'default', ?, ?, ?, 0, ?)", id, description, status, LocalDateTime.now().minusDays(30),
+                LocalDateTime.now());
+    }
+}
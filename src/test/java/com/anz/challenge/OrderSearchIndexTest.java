@@ -0,0 +1,152 @@
+package com.anz.challenge;
+
+import com.anz.challenge.dto.OrderSummary;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ShardedOrderStore;
+import com.anz.challenge.search.OrderSearchIndex;
+import com.anz.challenge.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OrderSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private OrderSearchIndex index;
+
+    @BeforeEach
+    void setup() throws Exception {
+        index = new OrderSearchIndex();
+        ReflectionTestUtils.setField(index, "directoryPath", "");
+        ReflectionTestUtils.setField(index, "refreshMs", 60_000L);
+        ReflectionTestUtils.setField(index, "commitMs", 60_000L);
+        index.init();
+        index.index(List.of(
+                order(1L, "Urgent delivery of office chairs", Order.Status.CREATED, "retail", 0),
+                order(2L, "Delivery of desks", Order.Status.COMPLETED, "retail", 1),
+                order(3L, "URGENT: replacement monitors, urgent!", Order.Status.CREATED, "retail", 2),
+                order(4L, "Urgent delivery for another tenant", Order.Status.CREATED, "wholesale", 3)));
+        index.refresh();
+        TenantContext.setTenant("retail");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TenantContext.clear();
+        index.close();
+    }
+
+    @Test
+    void testTermsAreRankedAndTenantScoped() {
+        Page<OrderSummary> urgent = index.search("urgent", null, null, null, PageRequest.of(0, 10));
+        assertEquals(2, urgent.getTotalElements());
+        assertEquals(List.of(3L, 1L), ids(urgent)); // two occurrences outrank one
+
+        Page<OrderSummary> both = index.search("Urgent  DELIVERY", null, null, null, PageRequest.of(0, 10));
+        assertEquals(List.of(1L), ids(both));
+        assertEquals("Urgent delivery of office chairs", both.getContent().get(0).description());
+    }
+
+    @Test
+    void testPrefixAndFilters() {
+        assertEquals(List.of(1L, 2L), ids(index.search("deliv*", null, null, null, PageRequest.of(0, 10))));
+        assertEquals(List.of(2L),
+                ids(index.search("deliv*", Order.Status.COMPLETED, null, null, PageRequest.of(0, 10))));
+        assertEquals(List.of(2L),
+                ids(index.search("deliv*", null, BASE.plusMinutes(1), BASE.plusMinutes(5), PageRequest.of(0, 10))));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(" * ", null, null, null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testReindexingReplacesAndPaginates() {
+        index.index(List.of(order(2L, "Delivery of desks", Order.Status.CANCELLED, "retail", 1)));
+        index.refresh();
+        Page<OrderSummary> first = index.search("of", null, null, null, PageRequest.of(0, 1));
+        Page<OrderSummary> second = index.search("of", null, null, null, PageRequest.of(1, 1));
+        assertEquals(2, first.getTotalElements());
+        assertEquals(1, first.getContent().size());
+        assertEquals(1, second.getContent().size());
+        assertNotEquals(ids(first), ids(second));
+        assertEquals("CANCELLED", index.search("desks", null, null, null, PageRequest.of(0, 10))
+                .getContent().get(0).status());
+        assertTrue(index.search("of", null, null, null, PageRequest.of(2, 1)).getContent().isEmpty());
+    }
+
+    @Test
+    void testRebuildKeepsNewerConcurrentWrites() {
+        ShardedOrderStore store = mock(ShardedOrderStore.class);
+        doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(0);
+            // The scan read version 0, then a status change committed and indexed version 1 before the row arrived
+            Order stale = order(2L, "Delivery of desks", Order.Status.CREATED, "retail", 1);
+            stale.setVersion(0L);
+            Order updated = order(2L, "Delivery of desks", Order.Status.CANCELLED, "retail", 1);
+            updated.setVersion(1L);
+            index.index(List.of(updated));
+            consumer.accept(stale);
+            return null;
+        }).when(store).scanAll(any());
+        ReflectionTestUtils.setField(index, "shardedStore", store);
+
+        assertEquals(1, index.rebuild());
+        assertEquals("CANCELLED", index.search("desks", null, null, null, PageRequest.of(0, 10))
+                .getContent().get(0).status());
+    }
+
+    @Test
+    void testOnDiskIndexIsCommittedPeriodically(@TempDir Path dir) throws Exception {
+        OrderSearchIndex onDisk = new OrderSearchIndex();
+        ReflectionTestUtils.setField(onDisk, "directoryPath", dir.toString());
+        ReflectionTestUtils.setField(onDisk, "refreshMs", 60_000L);
+        ReflectionTestUtils.setField(onDisk, "commitMs", 50L);
+        onDisk.init();
+        try {
+            onDisk.index(List.of(order(1L, "Durable order", Order.Status.CREATED, "retail", 0)));
+            long deadline = System.currentTimeMillis() + 5_000;
+            int committed = 0;
+            while (committed == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                try (Directory directory = FSDirectory.open(dir)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                            committed = reader.numDocs();
+                        }
+                    }
+                }
+            }
+            assertEquals(1, committed);
+        } finally {
+            onDisk.close();
+        }
+    }
+
+    private static Order order(Long id, String description, Order.Status status, String tenant, int minutes) {
+        Order order = new Order(id, description, status);
+        order.setTenant(tenant);
+        order.setCreatedAt(BASE.plusMinutes(minutes));
+        return order;
+    }
+
+    private static List<Long> ids(Page<OrderSummary> page) {
+        return page.getContent().stream().map(OrderSummary::id).toList();
+    }
+}
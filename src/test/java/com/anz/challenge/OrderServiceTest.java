@@ -1,9 +1,15 @@
 package com.anz.challenge;
 
 import com.anz.challenge.exception.OrderNotFoundException;
+import com.anz.challenge.journal.OrderEventJournal;
 import com.anz.challenge.model.Order;
 import com.anz.challenge.repository.OrderRepository;
-import com.anz.challenge.service.NotificationService;
+import com.anz.challenge.search.OrderSearchIndex;
+import com.anz.challenge.service.NotificationDispatcher;
+import com.anz.challenge.service.OrderArchive;
+import com.anz.challenge.service.OrderExpiry;
+import com.anz.challenge.service.OrderIdFilter;
+import com.anz.challenge.service.OrderReadCoalescer;
 import com.anz.challenge.service.OrderService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,11 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -35,7 +44,25 @@ class OrderServiceTest {
     private OrderRepository repository;
 
     @Mock
-    private NotificationService notificationService;
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private OrderEventJournal journal;
+
+    @Mock
+    private OrderArchive archive;
+
+    @Mock
+    private OrderSearchIndex searchIndex;
+
+    @Mock
+    private OrderIdFilter idFilter;
+
+    @Mock
+    private OrderExpiry expiry;
+
+    @Spy
+    private OrderReadCoalescer readCoalescer = new OrderReadCoalescer();
 
     @InjectMocks
     private OrderService orderService;
@@ -46,6 +73,8 @@ class OrderServiceTest {
     void setup() {
         MockitoAnnotations.openMocks(this);
         objectMapper = new ObjectMapper();
+        when(archive.appendTo(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(idFilter.mightExist(anyLong())).thenReturn(true);
     }
 
     @Test
@@ -64,7 +93,31 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals(Order.Status.CREATED, result.getStatus());
-        verify(notificationService, times(1)).notifyStatusChange(saved.getId(), "CREATED");
+        verify(notificationDispatcher, times(1)).submit(List.of(saved), NotificationDispatcher.Source.INTERACTIVE);
+        verify(journal, times(1)).recordCreated(saved);
+        verify(searchIndex, times(1)).index(List.of(saved));
+    }
+
+    @Test
+    void testJournalIsWrittenOnlyAfterCommit() {
+        Order saved = new Order(1L, "Test Order", Order.Status.CREATED);
+        when(repository.save(any(Order.class))).thenReturn(saved);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderService.createOrder(new Order(null, "Test Order", null));
+            verify(journal, never()).recordCreated(any());
+
+            // Rolled back: nothing is journaled
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            verify(journal, never()).recordCreated(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(journal, times(1)).recordCreated(saved);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -89,7 +142,7 @@ class OrderServiceTest {
         log.info("Saved Orders: {}", objectMapper.writeValueAsString(result));
 
         assertEquals(2, result.size());
-        verify(notificationService, times(2)).notifyStatusChange(anyLong(), eq("CREATED"));
+        verify(notificationDispatcher, times(1)).submit(savedOrders, NotificationDispatcher.Source.BULK);
     }
 
     @Test
@@ -154,7 +207,10 @@ class OrderServiceTest {
         log.info("Updated Order: {}", objectMapper.writeValueAsString(result));
 
         assertEquals(Order.Status.COMPLETED, result.getStatus());
-        verify(notificationService, times(1)).notifyStatusChange(1L, "COMPLETED");
+        verify(notificationDispatcher, times(1)).submit(
+                argThat(orders -> orders.size() == 1 && orders.get(0).getStatus() == Order.Status.COMPLETED),
+                eq(NotificationDispatcher.Source.INTERACTIVE));
+        verify(journal, times(1)).recordStatusChange(any(Order.class), eq(Order.Status.CREATED));
     }
 
     @Test
@@ -172,7 +228,7 @@ class OrderServiceTest {
         log.info("Caught expected exception: {}", exception.getMessage());
 
         verify(repository, never()).save(any(Order.class));
-        verify(notificationService, never()).notifyStatusChange(anyLong(), anyString());
+        verify(notificationDispatcher, never()).submit(anyList(), any());
     }
 
 
@@ -189,10 +245,36 @@ class OrderServiceTest {
         log.info("Caught expected exception: {}", exception.getMessage());
 
         verify(repository, never()).save(any(Order.class));
-        verify(notificationService, never()).notifyStatusChange(anyLong(), anyString());
+        verify(notificationDispatcher, never()).submit(anyList(), any());
     }
 
 
+    @Test
+    void testKnownMissingIdSkipsDatabase() {
+        when(idFilter.mightExist(42L)).thenReturn(false);
+
+        assertTrue(orderService.getOrder(42L).isEmpty());
+        assertTrue(orderService.getOrderVersion(42L).isEmpty());
+        assertThrows(OrderNotFoundException.class, () -> orderService.updateStatus(42L, Order.Status.COMPLETED));
+
+        verify(repository, never()).findById(42L);
+        verify(repository, never()).findVersionById(42L);
+        verify(archive, never()).findById(42L);
+    }
+
+    @Test
+    void testGetOrderFallsBackToArchive() {
+        Order archived = new Order(5L, "Old order", Order.Status.COMPLETED);
+        when(repository.findById(5L)).thenReturn(Optional.empty());
+        when(archive.findById(5L)).thenReturn(Optional.of(archived));
+
+        assertEquals(Optional.of(archived), orderService.getOrder(5L));
+
+        // Archived orders are terminal, so they are found but can never be updated
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateStatus(5L, Order.Status.CANCELLED));
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void testSearchOrdersWithStatus() throws JsonProcessingException {
         Order o1 = new Order(1L, "O1", Order.Status.CREATED);
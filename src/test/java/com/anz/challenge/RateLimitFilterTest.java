@@ -0,0 +1,212 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.RateLimitConfig;
+import com.anz.challenge.config.TenantConfig;
+import com.anz.challenge.ratelimit.ConcurrencyLimiter;
+import com.anz.challenge.ratelimit.RateLimitFilter;
+import com.anz.challenge.ratelimit.TokenBucket;
+import com.anz.challenge.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitConfig config;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        config = new RateLimitConfig();
+        ReflectionTestUtils.setField(config, "enabled", true);
+        ReflectionTestUtils.setField(config, "defaultCapacity", 100);
+        ReflectionTestUtils.setField(config, "defaultRefillPerSecond", 100.0);
+        ReflectionTestUtils.setField(config, "bulkCapacity", 2);
+        ReflectionTestUtils.setField(config, "bulkRefillPerSecond", 0.1);
+        ReflectionTestUtils.setField(config, "streamCapacity", 2);
+        ReflectionTestUtils.setField(config, "streamRefillPerSecond", 0.1);
+        ReflectionTestUtils.setField(config, "maxConcurrentRequests", 1);
+        ReflectionTestUtils.setField(config, "tenantMaxConcurrentRequests", 10);
+        ReflectionTestUtils.setField(config, "tenantBulkMaxConcurrentRequests", 10);
+        ReflectionTestUtils.setField(config, "concurrencyRetryAfterSeconds", 1);
+        ReflectionTestUtils.setField(config, "maxTrackedClients", 100);
+
+        TenantConfig tenantConfig = new TenantConfig();
+        ReflectionTestUtils.setField(tenantConfig, "users", "alice:retail,bob:wholesale");
+        tenantConfig.init();
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "config", config);
+        ReflectionTestUtils.setField(filter, "tenantConfig", tenantConfig);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    void testTokenBucketAllowsBurstThenRefills() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+        assertTrue(bucket.isIdle(10 * SECOND));
+    }
+
+    @Test
+    void testConcurrencyLimiter() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testBulkLimitIsPerSubject() throws Exception {
+        authenticate("alice");
+        assertEquals(200, bulkRequest().getStatus());
+        assertEquals(200, bulkRequest().getStatus());
+
+        MockHttpServletResponse rejected = bulkRequest();
+        assertEquals(429, rejected.getStatus());
+        assertEquals("10", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Rate limit exceeded"));
+
+        // Another subject has its own bucket
+        authenticate("bob");
+        assertEquals(200, bulkRequest().getStatus());
+
+        assertEquals(1.0, meterRegistry.get("orders.ratelimit.rejected")
+                .tag("endpoint", "bulk").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void testShedsWhenConcurrencyLimitReached() throws Exception {
+        authenticate("alice");
+        MockHttpServletResponse[] inner = new MockHttpServletResponse[1];
+
+        // The downstream chain issues a second request while the first is still in flight
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                try {
+                    inner[0] = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), inner[0], new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), outer, chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(429, inner[0].getStatus());
+        assertEquals("1", inner[0].getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("orders.ratelimit.rejected")
+                .tag("endpoint", "default").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    void testTenantBulkheadIsolatesTenants() throws Exception {
+        ReflectionTestUtils.setField(config, "maxConcurrentRequests", 10);
+        ReflectionTestUtils.setField(config, "tenantMaxConcurrentRequests", 1);
+        filter.init();
+        authenticate("alice");
+        TenantContext.setTenant("retail");
+        MockHttpServletResponse sameTenant = new MockHttpServletResponse();
+        MockHttpServletResponse otherTenant = new MockHttpServletResponse();
+
+        // While a retail request holds its tenant's only slot, retail is shed and wholesale is still admitted
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), sameTenant, new MockFilterChain());
+                    TenantContext.setTenant("wholesale");
+                    filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), otherTenant, new MockFilterChain());
+                    TenantContext.setTenant("retail");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders/bulkOrders"), outer, chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(429, sameTenant.getStatus());
+        assertTrue(sameTenant.getContentAsString().contains("tenant retail"));
+        assertEquals(200, otherTenant.getStatus());
+        assertEquals(1.0, meterRegistry.get("orders.ratelimit.rejected")
+                .tag("endpoint", "default").tag("reason", "tenant").counter().count());
+
+        // The slot is released once the request completes
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), after, new MockFilterChain());
+        assertEquals(200, after.getStatus());
+    }
+
+    @Test
+    void testUnknownTenantIsRejectedWithoutABulkhead() throws Exception {
+        authenticate("mallory");
+        TenantContext.setTenant("nobody");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), response, new MockFilterChain());
+        assertEquals(403, response.getStatus());
+        assertEquals(403, bulkRequest().getStatus());
+        assertEquals(3, ((Map<?, ?>) ReflectionTestUtils.getField(filter, "tenantLimiters")).size());
+    }
+
+    @Test
+    void testNonOrderPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/auth/token"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private MockHttpServletResponse bulkRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders/bulkOrders"), response, new MockFilterChain());
+        return response;
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.anz.challenge;
+
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.ShardedOrderStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedOrderStoreTest {
+
+    private static final int SHARDS = 3;
+
+    private ShardedOrderStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new ShardedOrderStore();
+        ReflectionTestUtils.setField(store, "shardCount", SHARDS);
+        ReflectionTestUtils.setField(store, "urlTemplate",
+                "jdbc:h2:mem:shard-test-" + UUID.randomUUID() + "-%d;DB_CLOSE_DELAY=-1");
+        ReflectionTestUtils.setField(store, "username", "sa");
+        ReflectionTestUtils.setField(store, "password", "sa");
+        ReflectionTestUtils.setField(store, "poolSize", 2);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void testIdsEncodeShardAndRouteReads() {
+        Set<Integer> shardsUsed = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            Order order = store.insert(new Order(null, "Order " + i, Order.Status.CREATED), "retail");
+            shardsUsed.add(store.shardOf(order.getId()));
+
+            Order found = store.findById(order.getId(), "retail").orElseThrow();
+            assertEquals("Order " + i, found.getDescription());
+            assertEquals(0L, store.findVersionById(order.getId(), "retail").orElseThrow());
+            assertTrue(store.findById(order.getId(), "wholesale").isEmpty());
+        }
+        assertEquals(SHARDS, shardsUsed.size());
+    }
+
+    @Test
+    void testFailedBulkInsertLeavesNoOrdersBehind() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            orders.add(new Order(null, "Bulk " + i, Order.Status.CREATED));
+        }
+        // One slice fails while the others commit
+        orders.get(1).setDescription("x".repeat(300));
+
+        assertThrows(RuntimeException.class, () -> store.insertAll(orders, "retail"));
+        assertEquals(0, store.search(null, PageRequest.of(0, 10), "retail").getTotalElements());
+    }
+
+    @Test
+    void testSearchMergesShardsInCreationOrder() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Integer> minutes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            minutes.add(i / 2); // pairs share a timestamp, so the id breaks ties
+        }
+        Collections.shuffle(minutes, new Random(42));
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < minutes.size(); i++) {
+            Order order = new Order(null, "Bulk " + i, i % 5 == 0 ? Order.Status.CANCELLED : Order.Status.CREATED);
+            order.setCreatedAt(base.plusMinutes(minutes.get(i)));
+            orders.add(order);
+        }
+        store.insertAll(orders, "retail");
+        store.insert(new Order(null, "Other tenant", Order.Status.CREATED), "wholesale");
+
+        List<Long> expected = orders.stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId))
+                .map(Order::getId).toList();
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 8; page++) {
+            Page<Order> result = store.search(null, PageRequest.of(page, 7), "retail");
+            assertEquals(50, result.getTotalElements());
+            result.getContent().forEach(o -> paged.add(o.getId()));
+        }
+        assertEquals(expected, paged);
+
+        Page<Order> cancelled = store.search(Order.Status.CANCELLED, PageRequest.of(0, 20), "retail");
+        assertEquals(10, cancelled.getTotalElements());
+        assertTrue(cancelled.getContent().stream().allMatch(o -> o.getStatus() == Order.Status.CANCELLED));
+        assertEquals(10, store.findByStatus(Order.Status.CANCELLED, "retail").size());
+        assertEquals(1, store.findByStatus(Order.Status.CREATED, "wholesale").size());
+    }
+
+    @Test
+    void testUpdateStatusDetectsConcurrentChange() {
+        long id = store.insert(new Order(null, "Contended", Order.Status.CREATED), "retail").getId();
+        Order first = store.findById(id, "retail").orElseThrow();
+        Order second = store.findById(id, "retail").orElseThrow();
+
+        assertEquals(1L, store.updateStatus(first, Order.Status.COMPLETED, "retail").getVersion());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> store.updateStatus(second, Order.Status.CANCELLED, "retail"));
+        assertEquals(Order.Status.COMPLETED, store.findById(id, "retail").orElseThrow().getStatus());
+    }
+}
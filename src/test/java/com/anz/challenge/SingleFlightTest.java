@@ -0,0 +1,151 @@
+package com.anz.challenge;
+
+import com.anz.challenge.concurrent.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(0, 100);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int followers = 4;
+
+        ExecutorService pool = Executors.newFixedThreadPool(followers + 1);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return "order-1";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < followers; i++) {
+                results.add(pool.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "unexpected";
+                })));
+            }
+            // Followers must be parked on the leader before it completes
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.coalesced() < followers && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("order-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> result : results) {
+                assertEquals("order-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.executions());
+        assertEquals(followers, flight.coalesced());
+    }
+
+    @Test
+    void testLoaderExceptionReachesCallerAndIsNotCached() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(60_000, 100);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> flight.execute(1L, () -> { throw new IllegalStateException("db down"); }));
+        assertEquals("db down", ex.getMessage());
+
+        assertEquals("order-1", flight.execute(1L, () -> "order-1"));
+        assertEquals(2, flight.executions());
+    }
+
+    @Test
+    void testResultTtlAndInvalidation() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(60_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", flight.execute(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", flight.execute(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, flight.cacheHits());
+
+        flight.invalidate(1L);
+        assertEquals("v2", flight.execute(1L, () -> "v" + loads.incrementAndGet()));
+
+        flight.invalidateAll();
+        assertEquals("v3", flight.execute(1L, () -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    void testZeroTtlDoesNotCacheCompletedResults() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(0, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute(1L, () -> "v" + loads.incrementAndGet());
+        flight.execute(1L, () -> "v" + loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+        assertEquals(0, flight.cacheHits());
+    }
+
+    @Test
+    void testInvalidationDuringLoadSkipsCaching() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(60_000, 100);
+
+        // A write lands while the read is running: its result may be stale, so it must not be cached
+        flight.execute(1L, () -> {
+            flight.invalidate(1L);
+            return "stale";
+        });
+        assertEquals("fresh", flight.execute(1L, () -> "fresh"));
+    }
+
+    @Test
+    void testCallerAfterInvalidationDoesNotJoinTheRunningLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(0, 100);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // The leader read the order before the write committed
+            Future<String> leader = pool.submit(() -> flight.execute(1L, () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "CREATED";
+            }));
+            await(leaderStarted);
+
+            flight.invalidate(1L);
+            assertEquals("COMPLETED", flight.execute(1L, () -> "COMPLETED"));
+            assertEquals(0, flight.coalesced());
+
+            release.countDown();
+            assertEquals("CREATED", leader.get(5, TimeUnit.SECONDS));
+            assertEquals(2, flight.executions());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.anz.challenge;
+
+import com.anz.challenge.config.TenantConfig;
+import com.anz.challenge.controller.AuthController;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.repository.OrderRepository;
+import com.anz.challenge.security.JwtUtil;
+import com.anz.challenge.tenant.TenantContext;
+import com.anz.challenge.tenant.TenantIdentifierResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No test-managed transaction: each repository call opens its own session for the tenant current at that moment
+@DataJpaTest
+@Import(TenantIdentifierResolver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantIsolationTest {
+
+    @Autowired
+    private OrderRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        for (String tenant : List.of("retail", "wholesale")) {
+            as(tenant, () -> {
+                repository.deleteAll();
+                return null;
+            });
+        }
+        TenantContext.clear();
+    }
+
+    @Test
+    void testOrdersAreStampedAndFilteredByTenant() {
+        Order retail = as("retail", () -> repository.save(new Order(null, "Retail order", Order.Status.CREATED)));
+        Order wholesale = as("wholesale",
+                () -> repository.save(new Order(null, "Wholesale order", Order.Status.CREATED)));
+        assertEquals("retail", retail.getTenant());
+        assertEquals("wholesale", wholesale.getTenant());
+
+        assertEquals(List.of("Retail order"), as("retail",
+                () -> repository.findAll().stream().map(Order::getDescription).toList()));
+        assertEquals(1, as("retail",
+                () -> repository.findByStatus(Order.Status.CREATED, PageRequest.of(0, 10)).getTotalElements()));
+        assertTrue(as("retail", () -> repository.findById(wholesale.getId())).isEmpty());
+        assertTrue(as("retail", () -> repository.findVersionById(wholesale.getId())).isEmpty());
+        assertTrue(as("wholesale", () -> repository.findById(wholesale.getId())).isPresent());
+    }
+
+    @Test
+    void testClientCannotChooseTenant() {
+        Order order = new Order(null, "Spoofed", Order.Status.CREATED);
+        order.setTenant("wholesale");
+
+        assertThrows(RuntimeException.class, () -> as("retail", () -> repository.save(order)));
+    }
+
+    @Test
+    void testTokenCarriesTenant() {
+        JwtUtil jwtUtil = new JwtUtil();
+
+        assertEquals("wholesale", jwtUtil.extractTenant(jwtUtil.generateToken("bob", "wholesale")));
+        assertEquals(TenantContext.DEFAULT_TENANT, jwtUtil.extractTenant(jwtUtil.generateToken("bob")));
+
+        String token = jwtUtil.generateToken("bob", "wholesale");
+        assertEquals("bob", jwtUtil.validClaims(token).orElseThrow().getSubject());
+        assertEquals("wholesale", jwtUtil.tenantOf(jwtUtil.validClaims(token).orElseThrow()));
+        assertTrue(jwtUtil.validClaims(token.substring(0, token.length() - 2)).isEmpty());
+    }
+
+    @Test
+    void testTokenTenantComesFromConfiguredUsers() {
+        JwtUtil jwtUtil = new JwtUtil();
+        TenantConfig tenantConfig = new TenantConfig();
+        ReflectionTestUtils.setField(tenantConfig, "users", "alice:retail, bob:wholesale");
+        tenantConfig.init();
+        AuthController auth = new AuthController(jwtUtil, tenantConfig);
+
+        assertEquals("retail", jwtUtil.extractTenant(auth.token("alice", null).getBody()));
+        assertEquals("wholesale", jwtUtil.extractTenant(auth.token("bob", "wholesale").getBody()));
+        assertEquals(TenantContext.DEFAULT_TENANT, jwtUtil.extractTenant(auth.token("carol", null).getBody()));
+        // Nobody can pick a tenant they are not mapped to
+        assertThrows(IllegalArgumentException.class, () -> auth.token("alice", "wholesale"));
+        assertThrows(IllegalArgumentException.class, () -> auth.token("carol", "retail"));
+        assertEquals(Set.of("default", "retail", "wholesale"), tenantConfig.getTenants());
+    }
+
+    private static <T> T as(String tenant, Supplier<T> action) {
+        TenantContext.setTenant(tenant);
+        try {
+            return action.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
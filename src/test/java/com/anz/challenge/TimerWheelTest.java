@@ -0,0 +1,61 @@
+package com.anz.challenge;
+
+import com.anz.challenge.concurrent.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testTimersFireAtTheFirstAdvancePastTheirDeadline() {
+        TimerWheel wheel = new TimerWheel(10, 0);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            // Whole ticks spread over several levels, up to ~64^3 ticks
+            long deadline = 10 * (long) Math.pow(10, random.nextDouble() * 5.5);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+        assertEquals(5000, wheel.size());
+
+        long now = 0;
+        long previous = 0;
+        int fired = 0;
+        while (fired < deadlines.size()) {
+            now += 1 + random.nextInt(20_000);
+            for (long id : wheel.advance(now)) {
+                long deadline = deadlines.get(id);
+                assertTrue(deadline <= now, "timer " + id + " fired early");
+                assertTrue(deadline > previous, "timer " + id + " fired late");
+                fired++;
+            }
+            previous = now;
+        }
+        assertEquals(0, wheel.size());
+        assertEquals(0, wheel.advance(now + 10_000_000).length);
+    }
+
+    @Test
+    void testPastAndDistantDeadlines() {
+        long start = 1_700_000_000_000L;
+        TimerWheel wheel = new TimerWheel(1000, start);
+        wheel.schedule(1, start - 60_000);
+        wheel.schedule(2, start + 1);
+        wheel.schedule(3, start + 40L * 365 * 24 * 3600 * 1000); // beyond the top level
+
+        assertArrayEquals(new long[] { 1 }, wheel.advance(start));
+        assertArrayEquals(new long[] { 2 }, wheel.advance(start + 1000));
+        assertEquals(1, wheel.size());
+
+        // Scheduled behind the wheel's position: fires on the next advance
+        wheel.schedule(4, start);
+        assertArrayEquals(new long[] { 4 }, wheel.advance(start + 1000));
+        assertEquals(1, wheel.size());
+    }
+}
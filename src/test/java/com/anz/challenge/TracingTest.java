@@ -0,0 +1,111 @@
+package com.anz.challenge;
+
+import com.anz.challenge.model.Order;
+import com.anz.challenge.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "order.tracing.file=target/tracing-test/spans.jsonl",
+        "order.journal.directory=target/tracing-test/journal",
+        "management.tracing.sampling.probability=1.0",
+        "notification.simulated-failure-rate=1.0",
+        "notification.retry.max-attempts=2",
+        "notification.retry.backoff-ms=10"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TracingTest {
+
+    private static final Path SPANS = Path.of("target/tracing-test/spans.jsonl");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Test
+    void testStatusUpdateIsTracedThroughEveryLayer() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken("admin");
+        String created = mockMvc.perform(post("/orders")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Order(null, "Traced", Order.Status.CREATED))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(put("/orders/" + id + "/status")
+                        .header("Authorization", token)
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk());
+
+        // Notifications are delivered asynchronously; wait for their spans (names are lower-hyphenated on export)
+        List<JsonNode> trace = List.of();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+            trace = traceOf("order-service.update-status");
+            if (names(trace).contains("notification-dispatcher.dispatch")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+
+        Set<String> names = names(trace);
+        assertTrue(names.containsAll(Set.of("jwt-filter.authenticate", "order-controller.update-status",
+                "order-service.update-status", "order-repository.find-by-id", "notification-dispatcher.dispatch",
+                "email backoff")), names.toString());
+        assertEquals(2, trace.stream().filter(s -> s.get("name").asText().equals("email attempt")).count());
+        JsonNode service = span(trace, "order-service.update-status");
+        assertEquals(service.get("spanId").asText(),
+                span(trace, "order-repository.find-by-id").get("parentSpanId").asText());
+        assertEquals("ERROR", span(trace, "notification-dispatcher.dispatch").get("status").asText());
+    }
+
+    // Every span sharing a trace with the named span
+    private List<JsonNode> traceOf(String name) throws Exception {
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(SPANS)) {
+            spans.add(objectMapper.readTree(line));
+        }
+        String traceId = spans.stream().filter(s -> s.get("name").asText().equals(name))
+                .map(s -> s.get("traceId").asText()).reduce((first, last) -> last).orElse("");
+        return spans.stream().filter(s -> s.get("traceId").asText().equals(traceId)).toList();
+    }
+
+    private static Set<String> names(List<JsonNode> spans) {
+        return spans.stream().map(s -> s.get("name").asText()).collect(Collectors.toSet());
+    }
+
+    private static JsonNode span(List<JsonNode> spans, String name) {
+        return spans.stream().filter(s -> s.get("name").asText().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,208 @@
+package com.anz.challenge.benchmark;
+
+import com.anz.challenge.AnzJavaCodeChallengeApplication;
+import com.anz.challenge.model.Order;
+import com.anz.challenge.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares searchOrders / createBulkOrders on the default and "performance" profiles, and sweeps the Hikari pool
+ * size on the performance profile to pick a data-driven pool size.
+ *
+ * Run with {@code mvn -Pbenchmark test}. Tunables (system properties):
+ * benchmark.bulkBatches, benchmark.bulkSize, benchmark.searchThreads, benchmark.searchesPerThread,
+ * benchmark.poolSizes (comma separated).
+ */
+@Tag("benchmark")
+class OrderPersistenceBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPersistenceBenchmark.class);
+
+    private static final int BULK_BATCHES = Integer.getInteger("benchmark.bulkBatches", 20);
+    private static final int BULK_SIZE = Integer.getInteger("benchmark.bulkSize", 500);
+    private static final int SEARCH_THREADS = Integer.getInteger("benchmark.searchThreads", 32);
+    private static final int SEARCHES_PER_THREAD = Integer.getInteger("benchmark.searchesPerThread", 200);
+    private static final String POOL_SIZES = System.getProperty("benchmark.poolSizes", "4,8,16,20");
+
+    @Test
+    void compareProfilesAndPoolSizes() throws Exception {
+        // Throwaway run so JIT warm-up doesn't favour whichever configuration runs last
+        run("performance", 8);
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("default", null));
+        for (String size : POOL_SIZES.split(",")) {
+            results.add(run("performance", Integer.parseInt(size.trim())));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-12s %5s %14s %14s %10s %10s %12s %12s%n",
+                "profile", "pool", "bulk orders/s", "searches/s", "p50 ms", "p99 ms", "acquire ms", "max pending"));
+        for (Result r : results) {
+            report.append(String.format("%-12s %5s %14.0f %14.0f %10.2f %10.2f %12.3f %12.0f%n", r.profile,
+                    r.poolSize == null ? "20" : r.poolSize, r.bulkPerSecond, r.searchesPerSecond, r.p50Millis,
+                    r.p99Millis, r.meanAcquireMillis, r.maxPending));
+        }
+        report.append("Recommended pool size: ").append(recommendPoolSize(results)).append(System.lineSeparator());
+
+        log.info("Persistence benchmark:{}{}", System.lineSeparator(), report);
+        Path out = Path.of("target", "benchmark-report.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report);
+    }
+
+    // Smallest pool reaching 95% of the best search throughput on the performance profile
+    private static int recommendPoolSize(List<Result> results) {
+        double best = results.stream().filter(r -> r.poolSize != null).mapToDouble(r -> r.searchesPerSecond).max()
+                .orElse(0);
+        return results.stream().filter(r -> r.poolSize != null && r.searchesPerSecond >= best * 0.95)
+                .mapToInt(r -> r.poolSize).min().orElse(0);
+    }
+
+    private Result run(String profile, Integer poolSize) throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "order.journal.enabled=false",
+                "notification.email.enabled=false",
+                "notification.sms.enabled=false"));
+        if (poolSize != null) {
+            properties.add("spring.datasource.hikari.maximum-pool-size=" + poolSize);
+            properties.add("spring.datasource.hikari.minimum-idle=" + poolSize);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AnzJavaCodeChallengeApplication.class)
+                .profiles(profile)
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+            OrderService service = context.getBean(OrderService.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+            // Warm up JIT, statement caches and the pool before measuring
+            bulk(service, 2);
+            search(service, 4, 50);
+
+            long start = System.nanoTime();
+            bulk(service, BULK_BATCHES);
+            double bulkPerSecond = BULK_BATCHES * BULK_SIZE / seconds(start);
+
+            Timer acquire = registry.find("hikaricp.connections.acquire").timer();
+            long acquireCountBefore = acquire == null ? 0 : acquire.count();
+            double acquireTotalBefore = acquire == null ? 0 : acquire.totalTime(TimeUnit.MILLISECONDS);
+
+            PendingSampler sampler = new PendingSampler(registry);
+            sampler.start();
+            start = System.nanoTime();
+            long[] latencies = search(service, SEARCH_THREADS, SEARCHES_PER_THREAD);
+            double searchesPerSecond = latencies.length / seconds(start);
+            sampler.interrupt();
+            sampler.join();
+
+            double meanAcquire = 0;
+            if (acquire != null && acquire.count() > acquireCountBefore) {
+                meanAcquire = (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireTotalBefore)
+                        / (acquire.count() - acquireCountBefore);
+            }
+            Arrays.sort(latencies);
+            return new Result(profile, poolSize, bulkPerSecond, searchesPerSecond, percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), meanAcquire, sampler.maxPending);
+        }
+    }
+
+    private static void bulk(OrderService service, int batches) {
+        for (int b = 0; b < batches; b++) {
+            int batch = b;
+            List<Order> orders = IntStream.range(0, BULK_SIZE)
+                    .mapToObj(i -> new Order(null, "BENCH-" + batch + "-" + i, Order.Status.values()[i % 3]))
+                    .toList();
+            service.createBulkOrders(orders);
+        }
+    }
+
+    private static long[] search(OrderService service, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    long[] latencies = new long[perThread];
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        Order.Status status = random.nextBoolean() ? null : Order.Status.values()[random.nextInt(3)];
+                        long start = System.nanoTime();
+                        service.searchOrders(status, PageRequest.of(random.nextInt(20), 50));
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[threads * perThread];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            return all;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private record Result(String profile, Integer poolSize, double bulkPerSecond, double searchesPerSecond,
+            double p50Millis, double p99Millis, double meanAcquireMillis, double maxPending) {
+    }
+
+    // Samples the hikaricp.connections.pending gauge while the search load runs
+    private static final class PendingSampler extends Thread {
+        private final MeterRegistry registry;
+        private volatile double maxPending;
+
+        PendingSampler(MeterRegistry registry) {
+            this.registry = registry;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                var gauge = registry.find("hikaricp.connections.pending").gauge();
+                if (gauge != null) {
+                    maxPending = Math.max(maxPending, gauge.value());
+                }
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.anz.challenge.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures time-to-first-request (process launch until POST /auth/token answers) for the default configuration,
+ * the fast-startup profile, fast-startup with the CDS archive and, when the classes were AOT-processed, with AOT.
+ *
+ * Needs the CDS artifacts, so build first: {@code mvn -Pcds,aot package -DskipTests}, then
+ * {@code mvn -Pbenchmark test -Dtest=StartupBenchmark}. Tunables (system properties): benchmark.startup.runs,
+ * benchmark.startup.targetMs (fails when the fastest configuration's median exceeds it).
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmark.class);
+
+    private static final int RUNS = Integer.getInteger("benchmark.startup.runs", 3);
+    private static final long TARGET_MS = Long.getLong("benchmark.startup.targetMs", 0);
+
+    private static final Path CDS_DIR = Path.of("target", "cds");
+    private static final Path ARCHIVE = CDS_DIR.resolve("app.jsa");
+    private static final Path AOT_INITIALIZER = Path.of("target", "classes", "com", "anz", "challenge",
+            "AnzJavaCodeChallengeApplication__ApplicationContextInitializer.class");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        Path jar = findThinJar();
+        assumeTrue(jar != null && Files.exists(ARCHIVE), "Run mvn -Pcds package first");
+        boolean aot = Files.exists(AOT_INITIALIZER);
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", List.of()));
+        variants.add(new Variant("fast-startup", List.of("-Dspring.profiles.active=fast-startup")));
+        variants.add(new Variant("fast-startup+cds", List.of("-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(),
+                "-Dspring.profiles.active=fast-startup")));
+        if (aot) {
+            variants.add(new Variant("fast-startup+cds+aot", List.of(
+                    "-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(), "-Dspring.profiles.active=fast-startup",
+                    "-Dspring.aot.enabled=true")));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-22s %12s %12s %12s%n",
+                "configuration", "median ms", "min ms", "max ms"));
+        long defaultMedian = 0;
+        long bestMedian = Long.MAX_VALUE;
+        for (Variant variant : variants) {
+            long[] millis = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                millis[run] = launch(jar, variant, run);
+            }
+            Arrays.sort(millis);
+            long median = millis[RUNS / 2];
+            if (variant.name.equals("default")) {
+                defaultMedian = median;
+            } else {
+                bestMedian = Math.min(bestMedian, median);
+            }
+            report.append(String.format("%-22s %12d %12d %12d%n", variant.name, median, millis[0], millis[RUNS - 1]));
+        }
+
+        log.info("Startup benchmark ({} runs each):{}{}", RUNS, System.lineSeparator(), report);
+        Files.writeString(Path.of("target", "startup-report.txt"), report);
+
+        assertTrue(bestMedian < defaultMedian, "Startup-optimised configurations are not faster than the default");
+        if (TARGET_MS > 0) {
+            assertTrue(bestMedian <= TARGET_MS,
+                    "Time to first request " + bestMedian + " ms exceeds target " + TARGET_MS + " ms");
+        }
+    }
+
+    private long launch(Path jar, Variant variant, int run) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java")
+                .toString()));
+        command.addAll(variant.jvmArgs);
+        command.addAll(List.of("-Dserver.port=" + port, "-Dorder.journal.enabled=false", "-jar",
+                jar.toAbsolutePath().toString()));
+
+        Path logFile = Path.of("target", "startup-logs", variant.name + "-" + run + ".log");
+        Files.createDirectories(logFile.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                    + "/auth/token?username=startup")).POST(HttpRequest.BodyPublishers.noBody()).build();
+            long deadline = start + TimeUnit.MINUTES.toNanos(3);
+            while (System.nanoTime() < deadline) {
+                assertTrue(process.isAlive(), variant.name + " exited early, see " + logFile);
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new AssertionError(variant.name + " did not answer within 3 minutes, see " + logFile);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Path findThinJar() throws IOException {
+        if (!Files.isDirectory(CDS_DIR)) {
+            return null;
+        }
+        try (var files = Files.list(CDS_DIR)) {
+            return files.filter(p -> p.getFileName().toString().endsWith("-cds.jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> jvmArgs) {
+    }
+}
@@ -0,0 +1,473 @@
+package com.anz.challenge.loadtest;
+
+import com.anz.challenge.AnzJavaCodeChallengeApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed-workload load test and performance release gate.
+ *
+ * Boots the application on a random port (H2 or HSQLDB), points the email and SMS channels at a WireMock stub
+ * with configurable latency and error rate, then drives create / bulk / status / get / search / stream requests
+ * over HTTP. Latencies are recorded in HdrHistograms; the report and per-operation percentile distributions are
+ * written to target/loadtest/.
+ *
+ * Run with {@code mvn -Ploadtest test}. Tunables (system properties):
+ * loadtest.db (h2|hsqldb), loadtest.profiles, loadtest.clients, loadtest.warmupSeconds, loadtest.durationSeconds,
+ * loadtest.ratePerClient (requests/s per client, 0 = closed loop), loadtest.mix, loadtest.bulkSize,
+ * loadtest.stub.latencyMs, loadtest.stub.errorRate, loadtest.maxP99Ms[.operation], loadtest.maxErrorRate.
+ *
+ * loadtest.targetUrl drives an already running service instead (e.g. the reactive variant on port 8081); its
+ * notification channels are then whatever that service is configured with.
+ */
+@Tag("loadtest")
+class OrderLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderLoadTest.class);
+
+    private static final String DB = System.getProperty("loadtest.db", "h2");
+    private static final String PROFILES = System.getProperty("loadtest.profiles", "");
+    private static final String TARGET_URL = System.getProperty("loadtest.targetUrl", "");
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 30);
+    private static final double RATE_PER_CLIENT = Double.parseDouble(System.getProperty("loadtest.ratePerClient", "0"));
+    private static final String MIX = System.getProperty("loadtest.mix",
+            "create=30,bulk=5,status=20,get=15,search=25,stream=5");
+    private static final int BULK_SIZE = Integer.getInteger("loadtest.bulkSize", 50);
+    private static final int STUB_LATENCY_MS = Integer.getInteger("loadtest.stub.latencyMs", 50);
+    private static final double STUB_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.stub.errorRate", "0.05"));
+    private static final long MAX_P99_MS = Long.getLong("loadtest.maxP99Ms", 1000);
+    // Bulk requests insert and journal every order in one call, so they get a looser bound than single-order calls
+    private static final long MAX_BULK_P99_MS = Long.getLong("loadtest.maxP99Ms.bulk", 10000);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+
+    private static final Path OUTPUT = Path.of("target", "loadtest");
+    private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    enum Operation {
+        CREATE,
+        BULK,
+        STATUS,
+        GET,
+        SEARCH,
+        STREAM
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Orders still in CREATED, so a status update is always a legal transition
+    private final Queue<Long> openOrders = new ConcurrentLinkedQueue<>();
+    // Ids whose creation has been acknowledged; identity ids can have uncommitted gaps, so a max id isn't enough
+    private final AtomicLongArray knownOrders = new AtomicLongArray(1 << 16);
+    private final AtomicLong knownOrderCount = new AtomicLong();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private String baseUrl;
+    private String token;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        FileSystemUtils.deleteRecursively(OUTPUT);
+        Files.createDirectories(OUTPUT);
+        Map<Operation, Integer> weights = parseMix(MIX);
+
+        RandomFault fault = new RandomFault(STUB_ERROR_RATE);
+        WireMockServer stub = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(CLIENTS * 2 + 10)
+                .disableRequestJournal()
+                .extensions(fault));
+        stub.start();
+        ResponseDefinitionBuilder accepted = aResponse().withStatus(202);
+        if (STUB_LATENCY_MS > 0) {
+            accepted = accepted.withLogNormalRandomDelay(STUB_LATENCY_MS, 0.25);
+        }
+        stub.stubFor(post(urlPathMatching("/notify/.*")).willReturn(accepted));
+
+        // A null resource is skipped by try-with-resources
+        try (ConfigurableApplicationContext context = TARGET_URL.isBlank() ? startApplication(stub.baseUrl()) : null) {
+            baseUrl = context != null
+                    ? "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    : TARGET_URL;
+            HttpResponse<String> login = send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/token?username=loadtest"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            // The reactive variant has no authentication
+            token = login.statusCode() == 200 ? login.body() : null;
+            for (int i = 0; i < 10; i++) {
+                bulk();
+            }
+
+            drive(weights, WARMUP_SECONDS);
+            Result result = drive(weights, DURATION_SECONDS);
+
+            String report = report(result, fault);
+            log.info("Load test:{}{}", System.lineSeparator(), report);
+            Files.writeString(OUTPUT.resolve("report.txt"), report);
+            for (Operation op : Operation.values()) {
+                try (PrintStream out = new PrintStream(OUTPUT.resolve(op.name().toLowerCase() + ".hgrm").toFile())) {
+                    result.latencies.get(op).outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            assertGate(result);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(String stubUrl) {
+        List<String> profiles = new ArrayList<>();
+        if ("hsqldb".equals(DB)) {
+            profiles.add("hsqldb");
+        }
+        for (String profile : PROFILES.split(",")) {
+            if (!profile.isBlank()) {
+                profiles.add(profile.trim());
+            }
+        }
+        // Command-line arguments, so they win over the profile property files
+        return new SpringApplicationBuilder(AnzJavaCodeChallengeApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run("--server.port=0",
+                        "--ratelimit.enabled=false",
+                        "--order.journal.directory=" + OUTPUT.resolve("journal"),
+                        "--notification.email.enabled=true",
+                        "--notification.email.url=" + stubUrl + "/notify/email",
+                        "--notification.sms.enabled=true",
+                        "--notification.sms.url=" + stubUrl + "/notify/sms",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                        "--logging.level.com.anz.challenge=WARN");
+    }
+
+    private Result drive(Map<Operation, Integer> weights, int seconds) throws InterruptedException {
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long intervalNanos = RATE_PER_CLIENT > 0 ? (long) (1_000_000_000L / RATE_PER_CLIENT) : 0;
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client(weights, totalWeight, intervalNanos, start, end);
+            clients.add(client);
+            client.start();
+        }
+        Result result = new Result(seconds);
+        for (Client client : clients) {
+            client.join();
+            for (Operation op : Operation.values()) {
+                result.latencies.get(op).add(client.latencies.get(op));
+                result.errors.get(op).add(client.errors.get(op).sum());
+            }
+        }
+        return result;
+    }
+
+    private final class Client extends Thread {
+        private final Map<Operation, Integer> weights;
+        private final int totalWeight;
+        private final long intervalNanos;
+        private final long start;
+        private final long end;
+        private final Map<Operation, Histogram> latencies = histograms();
+        private final Map<Operation, LongAdder> errors = counters();
+
+        Client(Map<Operation, Integer> weights, int totalWeight, long intervalNanos, long start, long end) {
+            this.weights = weights;
+            this.totalWeight = totalWeight;
+            this.intervalNanos = intervalNanos;
+            this.start = start;
+            this.end = end;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long intended = start;
+            while (true) {
+                if (intervalNanos > 0) {
+                    // Measure from the intended start so a stalled server can't hide queueing (coordinated omission)
+                    intended += intervalNanos;
+                    LockSupport.parkNanos(intended - System.nanoTime());
+                } else {
+                    intended = System.nanoTime();
+                }
+                if (intended - end >= 0) {
+                    return;
+                }
+                Operation op = pick();
+                boolean ok;
+                try {
+                    ok = execute(op);
+                } catch (IOException | RuntimeException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                latencies.get(op).recordValue(Math.min((System.nanoTime() - intended) / 1000, MAX_LATENCY_MICROS));
+                if (!ok) {
+                    errors.get(op).increment();
+                }
+            }
+        }
+
+        private Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+            for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty operation mix");
+        }
+    }
+
+    private boolean execute(Operation op) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (op) {
+            case CREATE -> create();
+            case BULK -> bulk();
+            case STATUS -> {
+                Long id = openOrders.poll();
+                if (id == null) {
+                    yield create();
+                }
+                String status = random.nextInt(4) == 0 ? "CANCELLED" : "COMPLETED";
+                yield ok(send(authorized("/orders/" + id + "/status?status=" + status)
+                        .PUT(HttpRequest.BodyPublishers.noBody())));
+            }
+            case GET -> {
+                int known = (int) Math.min(knownOrderCount.get(), knownOrders.length());
+                long id = known == 0 ? 1 : knownOrders.get(random.nextInt(known));
+                yield ok(send(authorized("/orders/" + id).GET()));
+            }
+            case SEARCH -> {
+                String[] statuses = { "", "&status=CREATED", "&status=COMPLETED", "&status=CANCELLED" };
+                yield ok(send(authorized("/orders?page=" + random.nextInt(10) + "&size=20"
+                        + statuses[random.nextInt(statuses.length)]).GET()));
+            }
+            case STREAM -> {
+                String[] statuses = { "CREATED", "COMPLETED", "CANCELLED" };
+                yield ok(send(authorized("/orders/stream/status/" + statuses[random.nextInt(statuses.length)]).GET()));
+            }
+        };
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(json("/orders",
+                "{\"description\":\"LOAD-" + System.nanoTime() + "\",\"status\":\"CREATED\"}"));
+        if (!ok(response)) {
+            return false;
+        }
+        track(objectMapper.readTree(response.body()));
+        return true;
+    }
+
+    private boolean bulk() throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < BULK_SIZE; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"description\":\"LOAD-BULK-").append(System.nanoTime()).append('-').append(i)
+                    .append("\",\"status\":\"CREATED\"}");
+        }
+        HttpResponse<String> response = send(json("/orders/bulkOrders", body.append(']').toString()));
+        if (!ok(response)) {
+            return false;
+        }
+        for (JsonNode order : objectMapper.readTree(response.body()).path("orders")) {
+            track(order);
+        }
+        return true;
+    }
+
+    private void track(JsonNode order) {
+        long id = order.path("id").asLong();
+        openOrders.add(id);
+        knownOrders.set((int) (knownOrderCount.getAndIncrement() % knownOrders.length()), id);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        return token != null ? request.header("Authorization", "Bearer " + token) : request;
+    }
+
+    private HttpRequest.Builder json(String path, String body) {
+        return authorized(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private boolean ok(HttpResponse<?> response) {
+        if (response.statusCode() / 100 == 2) {
+            return true;
+        }
+        failures.computeIfAbsent(response.request().method() + " " + response.request().uri().getPath()
+                .replaceAll("/\\d+", "/{id}") + " -> " + response.statusCode(), k -> new LongAdder()).increment();
+        return false;
+    }
+
+    private String report(Result result, RandomFault fault) {
+        StringBuilder report = new StringBuilder(TARGET_URL.isBlank() ? "" : "target=" + TARGET_URL + " ");
+        report.append(String.format(
+                "db=%s profiles=%s clients=%d duration=%ds warmup=%ds ratePerClient=%s stub latency=%dms errorRate=%.2f%n",
+                DB, PROFILES.isBlank() ? "-" : PROFILES, CLIENTS, DURATION_SECONDS, WARMUP_SECONDS,
+                RATE_PER_CLIENT > 0 ? RATE_PER_CLIENT : "closed-loop", STUB_LATENCY_MS, STUB_ERROR_RATE));
+        report.append(String.format("%-8s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        for (Operation op : Operation.values()) {
+            Histogram h = result.latencies.get(op);
+            all.add(h);
+            report.append(row(op.name().toLowerCase(), h, result.errors.get(op).sum(), result.seconds));
+        }
+        report.append(row("total", all, result.totalErrors(), result.seconds));
+        report.append(String.format("notifications received by stub: %d (%d answered 503)%n",
+                fault.received.sum(), fault.failed.sum()));
+        failures.forEach((request, count) -> report.append(String.format("failed: %s x%d%n", request, count.sum())));
+        return report.toString();
+    }
+
+    private static String row(String name, Histogram h, long errors, int seconds) {
+        return String.format("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, h.getTotalCount(),
+                errors, h.getTotalCount() / (double) seconds, h.getMean() / 1000.0,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+    }
+
+    private static void assertGate(Result result) {
+        long total = result.latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        assertTrue(total > 0, "No requests completed");
+        double errorRate = result.totalErrors() / (double) total;
+        assertTrue(errorRate <= MAX_ERROR_RATE,
+                String.format("Error rate %.4f exceeds loadtest.maxErrorRate=%.4f", errorRate, MAX_ERROR_RATE));
+        for (Operation op : Operation.values()) {
+            Histogram h = result.latencies.get(op);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            long limitMs = Long.getLong("loadtest.maxP99Ms." + op.name().toLowerCase(),
+                    op == Operation.BULK ? MAX_BULK_P99_MS : MAX_P99_MS);
+            double p99Ms = h.getValueAtPercentile(99) / 1000.0;
+            assertTrue(p99Ms <= limitMs, String.format("%s p99 %.2f ms exceeds %d ms", op, p99Ms, limitMs));
+        }
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(entry[0].trim().toUpperCase()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static Map<Operation, Histogram> histograms() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            histograms.put(op, new Histogram(MAX_LATENCY_MICROS, 3));
+        }
+        return histograms;
+    }
+
+    private static Map<Operation, LongAdder> counters() {
+        Map<Operation, LongAdder> counters = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            counters.put(op, new LongAdder());
+        }
+        return counters;
+    }
+
+    private static final class Result {
+        private final int seconds;
+        private final Map<Operation, Histogram> latencies = histograms();
+        private final Map<Operation, LongAdder> errors = counters();
+
+        Result(int seconds) {
+            this.seconds = seconds;
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    // Answers a configurable fraction of notification calls with 503
+    private static final class RandomFault implements ResponseDefinitionTransformerV2 {
+        private final double errorRate;
+        private final LongAdder received = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        RandomFault(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            received.increment();
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failed.increment();
+                return ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition()).withStatus(503).build();
+            }
+            return serveEvent.getResponseDefinition();
+        }
+
+        @Override
+        public String getName() {
+            return "random-fault";
+        }
+    }
+}
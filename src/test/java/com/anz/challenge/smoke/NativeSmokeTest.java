@@ -0,0 +1,220 @@
+package com.anz.challenge.smoke;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exercises the API end to end against the native image: every path that depends on reflection or resource hints
+ * (entity persistence, JSON/CBOR serialisation, error bodies, bulk reports, JWT issue and verification, swagger-ui)
+ * is hit at least once, so a missing hint shows up here rather than in production.
+ *
+ * Build first with {@code mvn -Pnative package}, then run {@code mvn -Pnative-smoke test}. Tunables (system
+ * properties): smoke.command (launcher, defaults to target/anz-java-code-challenge), smoke.maxStartupMs and
+ * smoke.maxRssMb (fail when exceeded).
+ */
+@Tag("native-smoke")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NativeSmokeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeSmokeTest.class);
+
+    private static final String COMMAND = System.getProperty("smoke.command", "target/anz-java-code-challenge");
+    private static final long MAX_STARTUP_MS = Long.getLong("smoke.maxStartupMs", 0);
+    private static final long MAX_RSS_MB = Long.getLong("smoke.maxRssMb", 0);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final Path logFile = Path.of("target", "smoke", "application.log");
+
+    private Process process;
+    private String baseUrl;
+    private String token;
+    private long startupMillis;
+
+    @BeforeAll
+    void start() throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList(COMMAND.trim().split("\\s+")));
+        assumeTrue(Files.isExecutable(Path.of(command.get(0))) || command.size() > 1,
+                "No native binary at " + command.get(0) + ", run mvn -Pnative package first");
+
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+        command.addAll(List.of("--server.port=" + port, "--order.journal.directory=target/smoke/journal",
+                "--ratelimit.enabled=false"));
+        Files.createDirectories(logFile.getParent());
+        process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile.toFile()).start();
+
+        long begin = System.nanoTime();
+        long deadline = begin + TimeUnit.MINUTES.toNanos(2);
+        while (token == null) {
+            assertTrue(process.isAlive(), "Application exited early, see " + logFile);
+            assertTrue(System.nanoTime() < deadline, "Application did not answer within 2 minutes, see " + logFile);
+            try {
+                HttpResponse<String> response = send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/auth/token?username=smoke")).POST(HttpRequest.BodyPublishers.noBody()));
+                if (response.statusCode() == 200) {
+                    token = response.body();
+                }
+            } catch (IOException e) {
+                Thread.sleep(5);
+            }
+        }
+        startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    }
+
+    @AfterAll
+    void stop() throws Exception {
+        if (process == null) {
+            return;
+        }
+        long rssKb = residentSetKb(process.pid());
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        log.info("{}: first request answered after {} ms, RSS {} MB", COMMAND, startupMillis, rssKb / 1024);
+        if (MAX_STARTUP_MS > 0) {
+            assertTrue(startupMillis <= MAX_STARTUP_MS, "Startup took " + startupMillis + " ms");
+        }
+        if (MAX_RSS_MB > 0 && rssKb > 0) {
+            assertTrue(rssKb / 1024 <= MAX_RSS_MB, "RSS is " + rssKb / 1024 + " MB");
+        }
+    }
+
+    @Test
+    void testRejectsRequestsWithoutToken() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/orders")).GET());
+        assertTrue(response.statusCode() == 401 || response.statusCode() == 403);
+    }
+
+    @Test
+    void testOrderLifecycle() throws Exception {
+        HttpResponse<String> created = send(json("/orders", "{\"description\":\"smoke\"}"));
+        assertEquals(200, created.statusCode(), created.body());
+        assertTrue(created.body().contains("\"status\":\"CREATED\""), created.body());
+        long id = id(created.body());
+
+        HttpResponse<String> fetched = send(authorized("/orders/" + id).GET());
+        assertEquals(200, fetched.statusCode());
+        assertTrue(fetched.headers().firstValue("ETag").isPresent());
+        assertTrue(fetched.body().contains("\"description\":\"smoke\""));
+
+        HttpResponse<String> completed = send(authorized("/orders/" + id + "/status?status=COMPLETED")
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+        assertEquals(200, completed.statusCode());
+        assertTrue(completed.body().contains("\"status\":\"COMPLETED\""));
+
+        // Error bodies are serialised from ApiError
+        HttpResponse<String> rejected = send(authorized("/orders/" + id + "/status?status=CANCELLED")
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+        assertEquals(400, rejected.statusCode());
+        HttpResponse<String> missing = send(authorized("/orders/999999999").GET());
+        assertEquals(404, missing.statusCode());
+        assertTrue(missing.body().contains("999999999"), missing.body());
+    }
+
+    @Test
+    void testSearchAndStream() throws Exception {
+        send(json("/orders", "{\"description\":\"smoke search\"}"));
+
+        HttpResponse<String> page = send(authorized("/orders?status=CREATED&page=0&size=5").GET());
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().contains("\"content\""), page.body());
+
+        HttpResponse<String> stream = send(authorized("/orders/stream/status/CREATED").GET());
+        assertEquals(200, stream.statusCode());
+        assertTrue(stream.body().startsWith("["), stream.body());
+    }
+
+    @Test
+    void testBulkReportsViolations() throws Exception {
+        HttpResponse<String> response = send(json("/orders/bulkOrders",
+                "[{\"description\":\"bulk 1\"},{\"description\":\"\"},{\"description\":\"bulk 3\"}]"));
+        assertEquals(207, response.statusCode(), response.body());
+        assertTrue(response.body().contains("\"created\":2"), response.body());
+        assertTrue(response.body().contains("\"index\":1"), response.body());
+    }
+
+    @Test
+    void testBinaryRepresentation() throws Exception {
+        long id = id(send(json("/orders", "{\"description\":\"cbor\"}")).body());
+        HttpResponse<byte[]> response = http.send(authorized("/orders/" + id).header("Accept", "application/cbor")
+                .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertEquals("application/cbor", response.headers().firstValue("Content-Type").orElse(""));
+        assertTrue(response.body().length > 0);
+    }
+
+    @Test
+    void testApiDocsAndSwaggerUi() throws Exception {
+        HttpResponse<String> docs = send(HttpRequest.newBuilder(URI.create(baseUrl + "/v3/api-docs")).GET());
+        assertEquals(200, docs.statusCode());
+        assertTrue(docs.body().contains("/orders/bulkOrders"));
+
+        HttpResponse<String> ui = send(HttpRequest.newBuilder(URI.create(baseUrl + "/swagger-ui/index.html")).GET());
+        assertEquals(200, ui.statusCode());
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder json(String path, String body) {
+        return authorized(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long id(String body) {
+        Matcher matcher = ID.matcher(body);
+        assertTrue(matcher.find(), body);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    // VmRSS from /proc; 0 where that isn't available
+    private static long residentSetKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}